@@ -0,0 +1,44 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a .gz next to every script and stylesheet under the given directory, compressed once at the
+ * highest level, so clients that accept gzip are sent it as is (spring.web.resources.chain.compressed)
+ * instead of the server compressing each response. Run by the build as a single-file program:
+ * java src/build/java/GzipStaticAssets.java target/classes/static
+ */
+public class GzipStaticAssets {
+
+    public static void main(String[] args) throws IOException {
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(root)) {
+            assets = files.filter(file -> file.toString().endsWith(".js") || file.toString().endsWith(".css")).toList();
+        }
+        for (Path asset : assets) {
+            byte[] content = Files.readAllBytes(asset);
+            Path gzipped = asset.resolveSibling(asset.getFileName() + ".gz");
+            try (OutputStream out = new BestGzipOutputStream(Files.newOutputStream(gzipped))) {
+                out.write(content);
+            }
+            System.out.printf("%s: %d -> %d bytes%n", root.relativize(asset), content.length, Files.size(gzipped));
+        }
+    }
+
+    private static final class BestGzipOutputStream extends GZIPOutputStream {
+
+        BestGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files and fail when a benchmark got slower.
+
+    python3 src/jmh/compare-results.py baseline.json target/jmh-result.json [--threshold 10]
+
+A benchmark counts as a regression when its score moved in the wrong direction by more than the
+threshold (percent) and by more than the combined error of both runs, so noisy benchmarks do not
+fail the comparison on their own. Exits with 1 if any benchmark regressed, 0 otherwise.
+"""
+import argparse
+import json
+import math
+import sys
+
+# Modes where a larger score is better; every other mode reports time per operation
+HIGHER_IS_BETTER = {"thrpt"}
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = {}
+        for entry in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((entry.get("params") or {}).items()))
+            key = entry["benchmark"].rsplit(".", 2)[-2:]
+            name = ".".join(key) + (f"[{params}]" if params else "")
+            metric = entry["primaryMetric"]
+            # Single-iteration runs report the error as the string "NaN"
+            error = float(metric.get("scoreError") or 0)
+            results[name] = {
+                "mode": entry["mode"],
+                "score": metric["score"],
+                "error": 0.0 if math.isnan(error) else error,
+                "unit": metric["scoreUnit"],
+            }
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="allowed slowdown in percent (default 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = 0
+    width = max((len(name) for name in current), default=9)
+    print(f"{'benchmark':<{width}}  {'baseline':>14}  {'current':>14}  {'change':>8}  unit")
+    for name, now in sorted(current.items()):
+        before = baseline.get(name)
+        if before is None or before["mode"] != now["mode"] or before["unit"] != now["unit"]:
+            print(f"{name:<{width}}  {'-':>14}  {now['score']:>14.3f}  {'new':>8}  {now['unit']}")
+            continue
+        change = (now["score"] - before["score"]) / before["score"] * 100 if before["score"] else 0.0
+        worse = -change if now["mode"] in HIGHER_IS_BETTER else change
+        beyond_noise = abs(now["score"] - before["score"]) > before["error"] + now["error"]
+        flag = ""
+        if worse > args.threshold and beyond_noise:
+            flag = "  REGRESSION"
+            regressions += 1
+        print(f"{name:<{width}}  {before['score']:>14.3f}  {now['score']:>14.3f}  {change:>+7.1f}%  {now['unit']}{flag}")
+    for name in sorted(set(baseline) - set(current)):
+        print(f"{name:<{width}}  {baseline[name]['score']:>14.3f}  {'-':>14}  {'gone':>8}  {baseline[name]['unit']}")
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) regressed by more than {args.threshold:g}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
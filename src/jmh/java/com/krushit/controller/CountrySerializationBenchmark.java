@@ -0,0 +1,113 @@
+package com.krushit.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.krushit.dto.CountryField;
+import com.krushit.entity.Country;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialising the country list without a database: Jackson over List&lt;Country&gt;, as the list endpoint
+ * used to, against CountryJsonWriter over projected rows in both layouts. Output goes to a counting
+ * sink so the payload size of each variant is visible through the blackhole.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class CountrySerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private List<Country> countries;
+    private List<Object[]> projectedRows;
+
+    @Setup
+    public void createRows() {
+        countries = new ArrayList<>(rows);
+        projectedRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Country country = new Country("Country " + i, "Continent " + (i % 7), 1_000_000L + i,
+                    "Capital " + i, 1000.5 + i, "C" + (i % 150), "Language " + (i % 90));
+            country.setId((long) i + 1);
+            countries.add(country);
+            projectedRows.add(new Object[]{country.getId(), country.getName(), country.getContinent(),
+                    country.getPopulation(), country.getCapital(), country.getArea(), country.getCurrency(),
+                    country.getLanguage()});
+        }
+    }
+
+    @Benchmark
+    public long jacksonEntityList() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, countries);
+        return out.count;
+    }
+
+    @Benchmark
+    public long writerObjects() throws IOException {
+        return writeRows(CountryJsonWriter.Layout.OBJECTS);
+    }
+
+    @Benchmark
+    public long writerCompact() throws IOException {
+        return writeRows(CountryJsonWriter.Layout.COMPACT);
+    }
+
+    @Benchmark
+    public long jacksonEntityListReadBack(Blackhole blackhole) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(countries);
+        blackhole.consume(objectMapper.readValue(json, Country[].class));
+        return json.length;
+    }
+
+    private long writeRows(CountryJsonWriter.Layout layout) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        CountryJsonWriter writer = new CountryJsonWriter(CountryField.ALL, layout);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writer.writeStart(generator);
+            for (Object[] row : projectedRows) {
+                writer.writeRow(generator, row);
+            }
+            writer.writeEnd(generator);
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
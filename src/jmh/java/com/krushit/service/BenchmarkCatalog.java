@@ -0,0 +1,57 @@
+package com.krushit.service;
+
+import com.krushit.SpringBootWebAppApplication;
+import com.krushit.entity.Country;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the application without a web server on a private in-memory H2 database and fills it with a
+ * synthetic catalog. Each benchmark class gets its own database, so forks never see each other's rows.
+ */
+final class BenchmarkCatalog {
+
+    static final String[] CONTINENTS = {"Africa", "Antarctica", "Asia", "Europe", "North America", "Oceania", "South America"};
+
+    private static final int SEED_CHUNK = 1000;
+
+    private BenchmarkCatalog() {
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.com.krushit=WARN")
+                .run();
+    }
+
+    // Ids of the rows inserted, in insertion order
+    static List<Long> seed(CountryService countryService, int rows) {
+        List<Long> ids = new ArrayList<>(rows);
+        Map<Long, Country> chunk = new LinkedHashMap<>();
+        for (int i = 0; i < rows; i++) {
+            chunk.put((long) i, country("Benchmark Country " + i, i));
+            if (chunk.size() == SEED_CHUNK || i == rows - 1) {
+                countryService.insertNewCountries(chunk);
+                chunk.values().forEach(country -> ids.add(country.getId()));
+                chunk.clear();
+            }
+        }
+        return ids;
+    }
+
+    static Country country(String name, long i) {
+        return new Country(name, CONTINENTS[(int) (i % CONTINENTS.length)], 1_000_000L + i * 37 % 900_000_000L,
+                "Capital " + i, 1000.5 + i % 100_000, "C" + (i % 150), "Language " + (i % 90));
+    }
+}
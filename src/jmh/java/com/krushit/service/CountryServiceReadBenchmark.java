@@ -0,0 +1,129 @@
+package com.krushit.service;
+
+import com.krushit.dto.CatalogStatistics;
+import com.krushit.dto.ContinentStatistics;
+import com.krushit.dto.CountryField;
+import com.krushit.dto.CountryPage;
+import com.krushit.dto.CountryQuery;
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of CountryService against a seeded catalog: cached lookups, index search, the filtered
+ * query endpoint, keyset pages and the statistics snapshot next to the GROUP BY it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountryServiceReadBenchmark {
+
+    private static final String[] NAME_PREFIXES = {"benchmark country 1", "benchmark country 42", "country 7", "ben"};
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private CountryService countryService;
+    private CountryRepository countryRepository;
+    private long[] ids;
+    private int next;
+
+    @Setup
+    public void start() {
+        context = BenchmarkCatalog.start("read_benchmark");
+        countryService = context.getBean(CountryService.class);
+        countryRepository = context.getBean(CountryRepository.class);
+        ids = BenchmarkCatalog.seed(countryService, catalogSize).stream().mapToLong(Long::longValue).toArray();
+        context.getBean(CountrySearchIndex.class).rebuild();
+        countryService.rebuildStatistics();
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    private int nextIndex() {
+        next = (next + 7919) % ids.length;
+        return next;
+    }
+
+    @Benchmark
+    public Optional<Country> countryByIdCached() {
+        return countryService.getCountryById(ids[nextIndex()]);
+    }
+
+    @Benchmark
+    public Optional<Country> countryByIdFromDatabase() {
+        return countryRepository.findById(ids[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<Country> countriesByContinentCached() {
+        return countryService.getCountriesByContinent(BenchmarkCatalog.CONTINENTS[nextIndex() % BenchmarkCatalog.CONTINENTS.length]);
+    }
+
+    @Benchmark
+    public List<Country> suggestByNamePrefix() {
+        return countryService.suggestCountries(NAME_PREFIXES[nextIndex() % NAME_PREFIXES.length], null, null);
+    }
+
+    @Benchmark
+    public CountryPage keysetFirstPage() {
+        return countryService.getCountriesPage(null, CountryService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<Country> queryEntitiesByContinentAndPopulation() {
+        return countryService.queryCountries(continentQuery(), PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "population")));
+    }
+
+    @Benchmark
+    public Page<Object[]> queryColumnsByContinentAndPopulation() {
+        return countryService.queryCountryColumns(continentQuery(), CountryField.parse("id,name,population"),
+                PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "population")));
+    }
+
+    private CountryQuery continentQuery() {
+        String continent = BenchmarkCatalog.CONTINENTS[nextIndex() % BenchmarkCatalog.CONTINENTS.length];
+        return new CountryQuery(null, continent, null, null, 5_000_000L, null, null, null);
+    }
+
+    @Benchmark
+    public CatalogStatistics statisticsSnapshot() {
+        return countryService.getStatistics();
+    }
+
+    @Benchmark
+    public List<ContinentStatistics> statisticsAggregateQuery() {
+        return countryRepository.aggregateByContinent();
+    }
+
+    @Benchmark
+    public List<Object[]> continentCountQuery() {
+        return countryRepository.countCountriesByContinent();
+    }
+}
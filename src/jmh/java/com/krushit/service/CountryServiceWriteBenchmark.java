@@ -0,0 +1,81 @@
+package com.krushit.service;
+
+import com.krushit.dto.BulkImportReport;
+import com.krushit.entity.Country;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write paths of CountryService, including everything a commit triggers: the outbox row, the change
+ * log, cache eviction, the search index and the statistics delta. Every invocation writes new names,
+ * so the catalog grows during a run instead of being reset between invocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CountryServiceWriteBenchmark {
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    @Param({"1000"})
+    public int importSize;
+
+    private ConfigurableApplicationContext context;
+    private CountryService countryService;
+    private CountryImportService importService;
+    private long sequence;
+
+    @Setup
+    public void start() {
+        context = BenchmarkCatalog.start("write_benchmark");
+        countryService = context.getBean(CountryService.class);
+        importService = context.getBean(CountryImportService.class);
+        BenchmarkCatalog.seed(countryService, catalogSize);
+        sequence = catalogSize;
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean createUpdateDelete() {
+        long i = sequence++;
+        Country saved = countryService.saveCountry(BenchmarkCatalog.country("Written Country " + i, i));
+        Country details = new Country(saved);
+        details.setPopulation(saved.getPopulation() + 1);
+        countryService.updateCountry(saved.getId(), details);
+        return countryService.deleteCountry(saved.getId());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BulkImportReport bulkImport() {
+        List<Country> rows = new ArrayList<>(importSize);
+        for (int row = 0; row < importSize; row++) {
+            long i = sequence++;
+            rows.add(BenchmarkCatalog.country("Imported Country " + i, i));
+        }
+        return importService.importCountries(rows);
+    }
+}
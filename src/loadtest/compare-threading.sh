@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Runs the same closed-loop load against the embedded instance twice, once on Tomcat's platform-thread
+# pool and once with the virtual-threads profile, and prints throughput and latency side by side.
+# Needs a Java 21 runtime for the second run to use virtual threads.
+#
+#   src/loadtest/compare-threading.sh [concurrency] [duration] [extra load test options...]
+set -euo pipefail
+
+concurrency=${1:-400}
+duration=${2:-60s}
+shift $(( $# > 2 ? 2 : $# ))
+out=target/loadtest
+
+java_version=$(java -XshowSettings:properties -version 2>&1 | awk -F' = ' '/java.specification.version/ {print $2}')
+if [ "${java_version%%.*}" -lt 21 ]; then
+  echo "Java $java_version has no virtual threads; run this with a Java 21 JDK on the PATH" >&2
+  exit 1
+fi
+
+# Same pool in both runs, so the only difference is how requests are scheduled. All workers share one
+# address, so the per-client rate limit is off or the runs would measure 429s.
+common="--concurrency=$concurrency --duration=$duration --spring.datasource.hikari.maximum-pool-size=20 --globalvault.rate-limit.enabled=false $*"
+mvn -B -q -Ploadtest verify -Dloadtest.args="$common --report=$out/platform-threads.json"
+mvn -B -q -Ploadtest verify -Dloadtest.args="$common --report=$out/virtual-threads.json --spring.profiles.active=virtual-threads"
+
+python3 - "$out/platform-threads.json" "$out/virtual-threads.json" <<'PY'
+import json, sys
+runs = [("platform", json.load(open(sys.argv[1]))), ("virtual", json.load(open(sys.argv[2])))]
+print(f"\n{'threads':<10} {'req/s':>10} {'errors':>8} {'p50 ms':>9} {'p99 ms':>9} {'p99.9 ms':>9}")
+for name, report in runs:
+    total = report["all"]
+    latency = total["latencyMillis"]
+    print(f"{name:<10} {total['throughput']:>10.1f} {total['errors']:>8} {latency['p50']:>9.2f} "
+          f"{latency['p99']:>9.2f} {latency['p99.9']:>9.2f}")
+PY
@@ -0,0 +1,179 @@
+package com.krushit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies per operation in HdrHistogram form, recorded in microseconds, plus response status counts.
+ * A request counts as failed when it got no response or a 4xx/5xx status.
+ */
+final class LatencyReport {
+
+    static final String ALL = "all";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+    // Operations with fewer samples than this are reported but not held against a baseline
+    private static final long MIN_COMPARABLE_SAMPLES = 100;
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final OperationStats all = new OperationStats();
+    private final Recorder interval = new Recorder(3);
+    private final LongAdder intervalErrors = new LongAdder();
+    private long elapsedNanos;
+
+    private static final class OperationStats {
+        final Histogram latencies = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+
+    // status is -1 when the request failed without a response
+    void record(String operation, int status, long latencyNanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        boolean failed = status < 0 || status >= 400;
+        for (OperationStats stats : List.of(all, operations.computeIfAbsent(operation, key -> new OperationStats()))) {
+            stats.latencies.recordValue(micros);
+            stats.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            if (failed) {
+                stats.errors.increment();
+            }
+        }
+        interval.recordValue(micros);
+        if (failed) {
+            intervalErrors.increment();
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // One progress line with the requests recorded since the previous call
+    void printInterval(PrintStream out, long secondsElapsed, double intervalSeconds) {
+        Histogram histogram = interval.getIntervalHistogram();
+        long errors = intervalErrors.sumThenReset();
+        out.printf("%5ds %9.1f req/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms  errors %d%n", secondsElapsed,
+                histogram.getTotalCount() / intervalSeconds, millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()), errors);
+    }
+
+    long getRequests() {
+        return all.latencies.getTotalCount();
+    }
+
+    double getErrorRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0 : (double) all.errors.sum() / requests;
+    }
+
+    double getP99Millis() {
+        return millis(all.latencies.getValueAtPercentile(99));
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%n%-40s %9s %9s %7s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        new TreeMap<>(operations).forEach((name, stats) -> printRow(out, name, stats, seconds));
+        printRow(out, ALL, all, seconds);
+        out.println();
+        new TreeMap<>(operations).forEach((name, stats) -> out.printf("%-40s statuses %s%n", name, statusCounts(stats)));
+    }
+
+    private static void printRow(PrintStream out, String name, OperationStats stats, double seconds) {
+        Histogram h = stats.latencies;
+        long count = h.getTotalCount();
+        out.printf("%-40s %9d %9.1f %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, count, count / seconds,
+                count == 0 ? 0 : 100.0 * stats.errors.sum() / count, millis(h.getValueAtPercentile(50)),
+                millis(h.getValueAtPercentile(90)), millis(h.getValueAtPercentile(99)),
+                millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+    }
+
+    /**
+     * Writes the JSON summary and, next to it, the full percentile distribution of all requests in
+     * HdrHistogram's .hgrm format for plotting.
+     */
+    void write(Path file, ObjectMapper objectMapper, Map<String, Object> settings) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.set("settings", objectMapper.valueToTree(settings));
+        root.put("durationSeconds", elapsedNanos / 1e9);
+        ObjectNode operationsNode = root.putObject("operations");
+        new TreeMap<>(operations).forEach((name, stats) -> operationsNode.set(name, describe(objectMapper, stats)));
+        root.set(ALL, describe(objectMapper, all));
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+
+        String name = file.getFileName().toString().replaceFirst("\\.json$", "");
+        try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+            all.latencies.outputPercentileDistribution(hgrm, 1000.0);
+        }
+    }
+
+    private ObjectNode describe(ObjectMapper objectMapper, OperationStats stats) {
+        Histogram h = stats.latencies;
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("requests", h.getTotalCount());
+        node.put("throughput", h.getTotalCount() / (elapsedNanos / 1e9));
+        node.put("errors", stats.errors.sum());
+        ObjectNode statuses = node.putObject("statuses");
+        statusCounts(stats).forEach((status, count) -> statuses.put(String.valueOf(status), count));
+        ObjectNode latency = node.putObject("latencyMillis");
+        latency.put("mean", h.getMean() / 1000.0);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latency.put(PERCENTILE_NAMES[i], millis(h.getValueAtPercentile(PERCENTILES[i])));
+        }
+        latency.put("max", millis(h.getMaxValue()));
+        return node;
+    }
+
+    private static Map<Integer, Long> statusCounts(OperationStats stats) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        stats.statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Operations whose p99 grew by more than the tolerance against an earlier report, ignoring growth of
+     * under a millisecond, which is within the noise of a local run.
+     */
+    List<String> compareWith(JsonNode baseline, double tolerancePercent) {
+        List<String> regressions = new ArrayList<>();
+        Map<String, OperationStats> current = new TreeMap<>(operations);
+        current.put(ALL, all);
+        current.forEach((name, stats) -> {
+            JsonNode before = ALL.equals(name) ? baseline.path(ALL) : baseline.path("operations").path(name);
+            if (before.isMissingNode() || before.path("requests").asLong() < MIN_COMPARABLE_SAMPLES
+                    || stats.latencies.getTotalCount() < MIN_COMPARABLE_SAMPLES) {
+                return;
+            }
+            double was = before.path("latencyMillis").path("p99").asDouble();
+            double now = millis(stats.latencies.getValueAtPercentile(99));
+            if (now > was * (1 + tolerancePercent / 100) && now - was >= 1.0) {
+                regressions.add(String.format("%s: p99 %.2f ms -> %.2f ms", name, was, now));
+            }
+        });
+        return regressions;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
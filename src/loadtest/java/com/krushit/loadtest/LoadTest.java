@@ -0,0 +1,242 @@
+package com.krushit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.krushit.SpringBootWebAppApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for the REST API. Sends a synthetic operation mix, or the requests of a Postman
+ * collection, at a fixed rate or closed-loop from a pool of workers, and reports throughput, error rate
+ * and latency percentiles per operation.
+ *
+ * <p>At a fixed rate every request has an intended start time and its latency is measured from there,
+ * so time spent waiting for a free worker while the target is slow counts against the target rather
+ * than disappearing from the histogram (coordinated omission).
+ */
+public final class LoadTest {
+
+    private static final int SEED_BATCH = 1000;
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(5);
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        ConfigurableApplicationContext embedded = options.target() == null ? startEmbedded(options) : null;
+        int status;
+        try {
+            String baseUrl = embedded == null ? options.target()
+                    : "http://localhost:" + embedded.getEnvironment().getProperty("local.server.port");
+            status = new LoadTest(options).run(baseUrl);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+        System.exit(status);
+    }
+
+    // Shares the JVM with the generator, so use it for relative comparisons rather than absolute sizing
+    private static ConfigurableApplicationContext startEmbedded(LoadTestOptions options) {
+        // A devtools restart would start a second copy of the application in another class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.main.banner-mode=off",
+                // Every worker sends from the same address and would share one client's rate limit
+                "globalvault.rate-limit.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.com.krushit=WARN",
+                "logging.level.org.springframework.web=WARN"));
+        properties.addAll(options.appProperties());
+        return new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    private int run(String baseUrl) throws Exception {
+        System.out.printf("Target %s, %s, %d workers%n", baseUrl,
+                options.rate() > 0 ? options.rate() + " req/s" : "closed loop", options.concurrency());
+        if (options.seed() > 0) {
+            seed(baseUrl, options.seed());
+        }
+        Traffic traffic = options.postman() != null
+                ? new PostmanTraffic(options.postman(), baseUrl, options.timeout(), objectMapper)
+                : new SyntheticTraffic(baseUrl, options.timeout(), objectMapper, fetchCatalog(baseUrl), options.mix());
+
+        if (!options.warmup().isZero()) {
+            System.out.printf("Warming up for %ds%n", options.warmup().toSeconds());
+            runPhase(traffic, options.warmup(), false);
+        }
+        System.out.printf("Measuring for %ds%n", options.duration().toSeconds());
+        LatencyReport report = runPhase(traffic, options.duration(), true);
+        report.print(System.out);
+        report.write(options.report(), objectMapper, settings(baseUrl));
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+        return verdict(report);
+    }
+
+    private LatencyReport runPhase(Traffic traffic, Duration length, boolean progress) throws InterruptedException {
+        LatencyReport report = new LatencyReport();
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        long spacing = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / options.rate()) : 0;
+        AtomicLong tickets = new AtomicLong();
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        if (progress) {
+            long period = PROGRESS_INTERVAL.toMillis();
+            ticker.scheduleAtFixedRate(() -> report.printInterval(System.out,
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), period / 1000.0),
+                    period, period, TimeUnit.MILLISECONDS);
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        for (int i = 0; i < options.concurrency(); i++) {
+            workers.execute(() -> {
+                while (true) {
+                    long intended;
+                    if (spacing > 0) {
+                        intended = start + tickets.getAndIncrement() * spacing;
+                        if (intended >= end) {
+                            return;
+                        }
+                        for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        intended = System.nanoTime();
+                        if (intended >= end) {
+                            return;
+                        }
+                    }
+                    Traffic.Call call = traffic.next();
+                    int status;
+                    try {
+                        HttpResponse<byte[]> response = client.send(call.request(), HttpResponse.BodyHandlers.ofByteArray());
+                        status = response.statusCode();
+                        call.onResponse().accept(response);
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    report.record(call.operation(), status, System.nanoTime() - intended);
+                }
+            });
+        }
+        workers.shutdown();
+        // Requests still in flight at the end are allowed their full timeout
+        workers.awaitTermination(length.plus(options.timeout()).toMillis() + 1000, TimeUnit.MILLISECONDS);
+        workers.shutdownNow();
+        ticker.shutdownNow();
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private void seed(String baseUrl, int rows) throws IOException, InterruptedException {
+        System.out.printf("Seeding %d countries%n", rows);
+        String[] continents = {"Africa", "Asia", "Europe", "North America", "Oceania", "South America"};
+        for (int first = 0; first < rows; first += SEED_BATCH) {
+            ArrayNode batch = objectMapper.createArrayNode();
+            for (int i = first; i < Math.min(rows, first + SEED_BATCH); i++) {
+                batch.addObject()
+                        .put("name", "Load Test Seed " + i)
+                        .put("continent", continents[i % continents.length])
+                        .put("population", 10_000L + i * 7919L % 500_000_000L)
+                        .put("capital", "Seed Capital " + i)
+                        .put("area", 100.0 + i % 100_000)
+                        .put("currency", "S" + i % 150)
+                        .put("language", "Seed Language " + i % 90);
+            }
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/countries/bulk"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(batch.toString()))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+        }
+    }
+
+    private JsonNode fetchCatalog(String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/countries?fields=id,name,continent&format=compact")).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not list countries: HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private Map<String, Object> settings(String baseUrl) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("target", options.target() == null ? "embedded" : baseUrl);
+        settings.put("rate", options.rate());
+        settings.put("concurrency", options.concurrency());
+        settings.put("warmupSeconds", options.warmup().toSeconds());
+        settings.put("durationSeconds", options.duration().toSeconds());
+        settings.put("traffic", options.postman() != null ? options.postman().toString()
+                : options.mix() != null ? options.mix() : SyntheticTraffic.DEFAULT_MIX);
+        return settings;
+    }
+
+    // Exit status 1 when any of the requested limits was broken
+    private int verdict(LatencyReport report) throws IOException {
+        List<String> failures = new ArrayList<>();
+        if (report.getRequests() == 0) {
+            failures.add("no requests completed");
+        }
+        if (options.maxP99Millis() != null && report.getP99Millis() > options.maxP99Millis()) {
+            failures.add(String.format("p99 %.2f ms is above %.2f ms", report.getP99Millis(), options.maxP99Millis()));
+        }
+        if (options.maxErrorRate() != null && report.getErrorRate() > options.maxErrorRate()) {
+            failures.add(String.format("error rate %.4f is above %.4f", report.getErrorRate(), options.maxErrorRate()));
+        }
+        if (options.baseline() != null) {
+            failures.addAll(report.compareWith(objectMapper.readTree(options.baseline().toFile()), options.tolerance()));
+        }
+        failures.forEach(failure -> System.err.println("FAILED: " + failure));
+        return failures.isEmpty() ? 0 : 1;
+    }
+}
@@ -0,0 +1,89 @@
+package com.krushit.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line of the load generator, given as {@code --name=value}. Arguments starting with
+ * {@code --spring.}, {@code --server.} or {@code --globalvault.} are passed to the embedded instance.
+ */
+record LoadTestOptions(String target, double rate, int concurrency, Duration warmup, Duration duration,
+                       Duration timeout, int seed, String mix, Path postman, Path report, Path baseline,
+                       double tolerance, Double maxP99Millis, Double maxErrorRate, List<String> appProperties) {
+
+    static final String USAGE = """
+            Options (all optional):
+              --target=URL          instance to load; without it an embedded instance is started on H2
+              --rate=N              requests per second across all workers; 0 runs closed-loop (default 0)
+              --concurrency=N       worker threads, i.e. maximum requests in flight (default 16)
+              --warmup=10s          unrecorded warm-up before the measured run
+              --duration=60s        measured run
+              --timeout=10s         per-request timeout
+              --seed=N              countries to create through /bulk first (default 10000 embedded, 0 otherwise)
+              --mix=byId:30,...     weights of the synthetic operations
+              --postman=FILE        replay the requests of a Postman collection in order instead of the mix
+              --report=FILE         JSON summary (default target/loadtest/report.json)
+              --baseline=FILE       earlier report; fail if an operation's p99 grew by more than --tolerance
+              --tolerance=20        allowed p99 growth over the baseline, in percent
+              --max-p99-ms=N        fail if the overall p99 is above this
+              --max-error-rate=N    fail if the share of failed requests is above this (0..1)
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        String target = null;
+        double rate = 0;
+        int concurrency = 16;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        Duration timeout = Duration.ofSeconds(10);
+        Integer seed = null;
+        String mix = null;
+        Path postman = null;
+        Path report = Path.of("target", "loadtest", "report.json");
+        Path baseline = null;
+        double tolerance = 20;
+        Double maxP99Millis = null;
+        Double maxErrorRate = null;
+        List<String> appProperties = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "target" -> target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "rate" -> rate = Double.parseDouble(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "timeout" -> timeout = DurationStyle.detectAndParse(value);
+                case "seed" -> seed = Integer.parseInt(value);
+                case "mix" -> mix = value;
+                case "postman" -> postman = Path.of(value);
+                case "report" -> report = Path.of(value);
+                case "baseline" -> baseline = Path.of(value);
+                case "tolerance" -> tolerance = Double.parseDouble(value);
+                case "max-p99-ms" -> maxP99Millis = Double.parseDouble(value);
+                case "max-error-rate" -> maxErrorRate = Double.parseDouble(value);
+                default -> {
+                    if (name.startsWith("spring.") || name.startsWith("server.") || name.startsWith("globalvault.")) {
+                        appProperties.add(name + "=" + value);
+                    } else {
+                        throw new IllegalArgumentException("Unknown option --" + name);
+                    }
+                }
+            }
+        }
+        if (concurrency < 1 || rate < 0) {
+            throw new IllegalArgumentException("--concurrency must be positive and --rate must not be negative");
+        }
+        int seedRows = seed != null ? seed : target == null ? 10_000 : 0;
+        return new LoadTestOptions(target, rate, concurrency, warmup, duration, timeout, seedRows, mix, postman,
+                report, baseline, tolerance, maxP99Millis, maxErrorRate, List.copyOf(appProperties));
+    }
+}
@@ -0,0 +1,82 @@
+package com.krushit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays the requests of a Postman collection round-robin, in collection order. Collection variables are
+ * substituted and {@code base_url} always points at the target. The requests are sent as they are, so the
+ * collection's writes repeat and mostly answer 400 or 404 after the first round; those show up per
+ * operation in the report.
+ */
+final class PostmanTraffic implements Traffic {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{([^}]+)}}");
+
+    private final List<Call> calls = new ArrayList<>();
+    private final AtomicLong position = new AtomicLong();
+
+    PostmanTraffic(Path collection, String baseUrl, Duration timeout, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(collection.toFile());
+        Map<String, String> variables = new HashMap<>();
+        for (JsonNode variable : root.path("variable")) {
+            variables.put(variable.path("key").asText(), variable.path("value").asText());
+        }
+        variables.put("base_url", baseUrl);
+        addItems(root.path("item"), variables, timeout);
+        if (calls.isEmpty()) {
+            throw new IllegalArgumentException("No requests found in " + collection);
+        }
+    }
+
+    private void addItems(JsonNode items, Map<String, String> variables, Duration timeout) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                addItems(item.get("item"), variables, timeout);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            JsonNode url = request.path("url");
+            String target = substitute(url.isTextual() ? url.asText() : url.path("raw").asText(), variables);
+            String body = substitute(request.path("body").path("raw").asText(""), variables);
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target.replace(" ", "%20"))).timeout(timeout);
+            for (JsonNode header : request.path("header")) {
+                if (!header.path("disabled").asBoolean(false)) {
+                    builder.header(header.path("key").asText(), substitute(header.path("value").asText(), variables));
+                }
+            }
+            builder.method(request.path("method").asText("GET"), body.isEmpty()
+                    ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+            calls.add(new Call(item.path("name").asText(request.path("method").asText() + " " + target), builder.build()));
+        }
+    }
+
+    private static String substitute(String text, Map<String, String> variables) {
+        Matcher matcher = VARIABLE.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = variables.getOrDefault(matcher.group(1).strip(), matcher.group());
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    @Override
+    public Call next() {
+        return calls.get((int) (position.getAndIncrement() % calls.size()));
+    }
+}
@@ -0,0 +1,201 @@
+package com.krushit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weighted mix of the catalog's REST operations, drawn at random per request. Reads pick ids, names and
+ * continents from the catalog as it was when the run started; writes only touch countries the run
+ * created itself, so the seeded catalog stays the same between runs.
+ */
+final class SyntheticTraffic implements Traffic {
+
+    static final List<String> OPERATIONS = List.of(
+            "byId", "byName", "continent", "typeahead", "query", "page", "statistics", "create", "update", "delete");
+    static final String DEFAULT_MIX =
+            "byId:30,byName:10,continent:10,typeahead:20,query:10,page:5,statistics:5,create:4,update:3,delete:3";
+
+    private static final long[] POPULATION_FLOORS = {0, 1_000_000, 10_000_000, 100_000_000};
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final List<Long> ids;
+    private final List<String> names;
+    private final List<String> continents;
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    SyntheticTraffic(String baseUrl, Duration timeout, ObjectMapper objectMapper, JsonNode catalog, String mix) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.ids = new ArrayList<>();
+        this.names = new ArrayList<>();
+        List<String> seenContinents = new ArrayList<>();
+        // Compact layout of fields=id,name,continent: {"fields":[...],"rows":[[id,name,continent],...]}
+        for (JsonNode row : catalog.path("rows")) {
+            ids.add(row.get(0).asLong());
+            names.add(row.get(1).asText());
+            if (!seenContinents.contains(row.get(2).asText())) {
+                seenContinents.add(row.get(2).asText());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The target has no countries to read; seed it with --seed=N");
+        }
+        this.continents = seenContinents;
+
+        Map<String, Integer> weights = parseMix(mix == null ? DEFAULT_MIX : mix);
+        this.operations = weights.keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.strip().split(":");
+            if (pair.length != 2 || !OPERATIONS.contains(pair[0])) {
+                throw new IllegalArgumentException("Bad --mix entry '" + part + "'; operations are " + OPERATIONS);
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                weights.put(pair[0], weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+
+    @Override
+    public Call next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (draw >= cumulativeWeights[index]) {
+            index++;
+        }
+        String operation = operations[index];
+        return switch (operation) {
+            case "byId" -> new Call(operation, get("/api/countries/" + ids.get(random.nextInt(ids.size()))));
+            case "byName" -> new Call(operation, get("/api/countries/name/" + encode(randomName(random))));
+            case "continent" -> new Call(operation, get("/api/countries/continent/" + encode(randomContinent(random))));
+            case "typeahead" -> {
+                String name = randomName(random);
+                String prefix = name.substring(0, Math.min(name.length(), 2 + random.nextInt(4)));
+                yield new Call(operation, get("/api/countries/typeahead?q=" + encode(prefix)));
+            }
+            case "query" -> new Call(operation, get("/api/countries/query?continent=" + encode(randomContinent(random))
+                    + "&minPopulation=" + POPULATION_FLOORS[random.nextInt(POPULATION_FLOORS.length)]
+                    + "&sort=population,desc&size=50&fields=id,name,population"));
+            case "page" -> new Call(operation, get("/api/countries?limit=" + 100));
+            case "statistics" -> new Call(operation, get("/api/countries/statistics"));
+            case "update" -> update(random);
+            case "delete" -> delete();
+            default -> create(random);
+        };
+    }
+
+    private Call create(ThreadLocalRandom random) {
+        ObjectNode country = objectMapper.createObjectNode()
+                .put("name", "Load Test " + runId + "-" + sequence.incrementAndGet())
+                .put("continent", randomContinent(random))
+                .put("population", random.nextLong(1_000, 100_000_000))
+                .put("capital", "Load Test Capital")
+                .put("area", random.nextDouble(1, 1_000_000))
+                .put("currency", "LTC")
+                .put("language", "Loadtestish");
+        return new Call("create", send("POST", "/api/countries", country), response -> {
+            if (response.statusCode() == 201) {
+                created.add(readId(response.body()));
+            }
+        });
+    }
+
+    // Borrows one of this run's countries; it goes back into the pool once the update has answered
+    private Call update(ThreadLocalRandom random) {
+        Long id = created.poll();
+        if (id == null) {
+            return create(random);
+        }
+        ObjectNode country = objectMapper.createObjectNode()
+                .put("name", "Load Test " + runId + "-u" + id)
+                .put("continent", randomContinent(random))
+                .put("population", random.nextLong(1_000, 100_000_000));
+        return new Call("update", send("PUT", "/api/countries/" + id, country), response -> {
+            if (response.statusCode() != 404) {
+                created.add(id);
+            }
+        });
+    }
+
+    private Call delete() {
+        Long id = created.poll();
+        if (id == null) {
+            return create(ThreadLocalRandom.current());
+        }
+        return new Call("delete", HttpRequest.newBuilder(uri("/api/countries/" + id)).timeout(timeout).DELETE().build());
+    }
+
+    private Long readId(byte[] body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable create response", e);
+        }
+    }
+
+    private String randomName(ThreadLocalRandom random) {
+        return names.get(random.nextInt(names.size()));
+    }
+
+    private String randomContinent(ThreadLocalRandom random) {
+        return continents.get(random.nextInt(continents.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, JsonNode body) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,23 @@
+package com.krushit.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Consumer;
+
+// Source of the requests the workers send; implementations are called from every worker concurrently
+interface Traffic {
+
+    Call next();
+
+    /**
+     * One request, labelled with the operation it is reported under. The callback sees every response,
+     * successful or not, and lets stateful traffic learn ids or give back ids it borrowed.
+     */
+    record Call(String operation, HttpRequest request, Consumer<HttpResponse<byte[]>> onResponse) {
+
+        Call(String operation, HttpRequest request) {
+            this(operation, request, response -> {
+            });
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.krushit;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive profile, which builds its own pool; an auto-configured ConnectionFactory
+// would replace the JDBC DataSource that JPA runs on
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
 public class SpringBootWebAppApplication {
 
 	public static void main(String[] args) {
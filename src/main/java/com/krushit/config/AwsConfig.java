@@ -0,0 +1,46 @@
+package com.krushit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+
+import java.time.Duration;
+
+@Configuration
+public class AwsConfig {
+    
+    @Value("${aws.region}")
+    private String region;
+    
+    // An invocation, retries included, gives up when the outbox dispatcher stops waiting for it
+    @Value("${globalvault.notifications.publish-timeout:30s}")
+    private Duration publishTimeout;
+    
+    @Bean
+    public LambdaClient lambdaClient() {
+        return LambdaClient.builder()
+                .region(Region.of(region))
+                .overrideConfiguration(timeouts())
+                .build();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "globalvault.notifications.publisher", havingValue = "lambda-async", matchIfMissing = true)
+    public LambdaAsyncClient lambdaAsyncClient() {
+        return LambdaAsyncClient.builder()
+                .region(Region.of(region))
+                .overrideConfiguration(timeouts())
+                .build();
+    }
+    
+    private ClientOverrideConfiguration timeouts() {
+        return ClientOverrideConfiguration.builder()
+                .apiCallTimeout(publishTimeout)
+                .build();
+    }
+}
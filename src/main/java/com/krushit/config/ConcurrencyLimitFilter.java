@@ -0,0 +1,137 @@
+package com.krushit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of API requests in progress. Platform threads are capped by Tomcat's pool; virtual
+ * threads are not, so without this every request would queue inside Hikari and fail after the
+ * connection timeout. Requests wait here for a permit instead, and get a 503 once the queue timeout
+ * is over. Streamed responses keep their permit until the stream completes, except the change stream,
+ * which stays open for minutes and does no work between deltas.
+ */
+@Component
+@ConditionalOnProperty(name = "globalvault.concurrency.max-in-flight")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final Duration queueTimeout;
+    private final Counter rejected;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(@Value("${globalvault.concurrency.max-in-flight}") int maxInFlight,
+                                  @Value("${globalvault.concurrency.queue-timeout:1s}") Duration queueTimeout,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxInFlight, true);
+        this.queueTimeout = queueTimeout;
+        this.rejected = Counter.builder("globalvault.concurrency.rejected")
+                .description("API requests turned away after waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("globalvault.concurrency.in.flight", permits, semaphore -> maxInFlight - semaphore.availablePermits())
+                .description("API requests holding a permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || request.getRequestURI().startsWith("/api/countries/changes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(released));
+            } else {
+                release(released);
+            }
+        }
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Server is busy, please retry");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private final class ReleasingListener implements AsyncListener {
+
+        private final AtomicBoolean released;
+
+        ReleasingListener(AtomicBoolean released) {
+            this.released = released;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-registered by the container for the next async cycle; the permit is still held
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
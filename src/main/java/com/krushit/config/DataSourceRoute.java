@@ -0,0 +1,34 @@
+package com.krushit.config;
+
+/**
+ * Keeps the current thread's reads on the primary database, for work that must not see replication lag.
+ * Has no effect unless a read replica is configured.
+ */
+public final class DataSourceRoute {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    public static Pin pinToPrimary() {
+        if (PRIMARY.get() != null) {
+            // Already pinned further up the call stack, which will also unpin
+            return () -> {
+            };
+        }
+        PRIMARY.set(Boolean.TRUE);
+        return PRIMARY::remove;
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PRIMARY.get() != null;
+    }
+
+    @FunctionalInterface
+    public interface Pin extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
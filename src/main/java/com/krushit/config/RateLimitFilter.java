@@ -0,0 +1,123 @@
+package com.krushit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits each client of the country API to requests-per-second, with bursts of up to burst requests.
+ * Clients are told apart by their API key header, or by address when they send none; behind a proxy
+ * that needs server.forward-headers-strategy. A client over its limit gets a 429 with Retry-After right
+ * away, before it can take a concurrency permit or a connection. The change stream is not limited,
+ * since a reconnect is a single request.
+ */
+@Component
+@ConditionalOnProperty(name = "globalvault.rate-limit.enabled", havingValue = "true")
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final long nanosPerToken;
+    private final int burst;
+    private final String apiKeyHeader;
+    private final LongSupplier clock;
+    // Idle buckets refill completely within the expiry, so evicting one is the same as keeping it
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public RateLimitFilter(@Value("${globalvault.rate-limit.requests-per-second:50}") double requestsPerSecond,
+                           @Value("${globalvault.rate-limit.burst:100}") int burst,
+                           @Value("${globalvault.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+                           @Value("${globalvault.rate-limit.max-clients:100000}") long maxClients,
+                           MeterRegistry meterRegistry) {
+        this(requestsPerSecond, burst, apiKeyHeader, maxClients, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(double requestsPerSecond, int burst, String apiKeyHeader, long maxClients,
+                    MeterRegistry meterRegistry, LongSupplier clock) {
+        this.nanosPerToken = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.burst = burst;
+        this.apiKeyHeader = apiKeyHeader;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(nanosPerToken * burst))
+                .build();
+        this.allowed = Counter.builder("globalvault.ratelimit.requests")
+                .description("API requests checked against the per-client rate limit")
+                .tag("outcome", "allowed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("globalvault.ratelimit.requests")
+                .description("API requests checked against the per-client rate limit")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("globalvault.ratelimit.clients", buckets, Cache::estimatedSize)
+                .description("Clients with a token bucket that has not refilled yet")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/countries") || request.getRequestURI().startsWith("/api/countries/changes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = clock.getAsLong();
+        long wait = buckets.get(clientOf(request), client -> new TokenBucket(nanosPerToken, burst, now)).tryTake(now);
+        if (wait > 0) {
+            rejected.increment();
+            reject(response, wait);
+            return;
+        }
+        allowed.increment();
+        chain.doFilter(request, response);
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey.strip();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Too many requests, please slow down");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Whole seconds, rounded up so a client that honours it is not turned away again
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -0,0 +1,74 @@
+package com.krushit.config;
+
+import com.krushit.repository.ReactiveCountryRepository;
+import com.krushit.service.CountryService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * WebFlux on Netty for the reactive profile, which also sets spring.main.web-application-type=reactive.
+ * List reads stream from an R2DBC pool; JPA keeps a small JDBC pool for writes and cache misses, which
+ * run on the boundedElastic scheduler. Controllers that return plain values (pages, notification status)
+ * run there too, so nothing blocks an event loop thread.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("reactive")
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    // Declared so that Netty wins over Tomcat, which is on the classpath for the default MVC stack
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // Not a ConnectionFactory bean: one would switch off the JDBC DataSource auto-configuration that JPA needs
+    @Bean
+    public ReactiveCountryRepository reactiveCountryRepository(@Value("${globalvault.r2dbc.url}") String url,
+                                                               @Value("${globalvault.r2dbc.username:}") String username,
+                                                               @Value("${globalvault.r2dbc.password:}") String password,
+                                                               @Value("${globalvault.r2dbc.pool.initial-size:2}") int initialSize,
+                                                               @Value("${globalvault.r2dbc.pool.max-size:10}") int maxSize,
+                                                               @Value("${globalvault.r2dbc.pool.max-idle-time:30m}") Duration maxIdleTime) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("countries-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+        return new ReactiveCountryRepository(pool);
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageable = new ReactivePageableHandlerMethodArgumentResolver();
+        pageable.setFallbackPageable(PageRequest.of(0, CountryService.DEFAULT_PAGE_SIZE));
+        pageable.setMaxPageSize(CountryService.MAX_PAGE_SIZE);
+        configurer.addCustomResolver(pageable);
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(new TaskExecutorAdapter(task -> Schedulers.boundedElastic().schedule(task)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.krushit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write split, switched on by setting globalvault.datasource.replica.url. Read-only transactions,
+ * which include the repositories' finders, run on the replica; everything else runs on spring.datasource.
+ * The replica uses the primary's credentials unless it has its own, and takes Hikari settings from
+ * globalvault.datasource.replica.hikari. Under the reactive profile only the writing thread reads its own
+ * changes, since the last-write cookie is handled by a servlet filter.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "globalvault.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties, Environment environment) throws Exception {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties properties = binder.bindOrCreate("globalvault.datasource.replica", DataSourceProperties.class);
+        if (properties.getUsername() == null) {
+            properties.setUsername(primaryProperties.determineUsername());
+            properties.setPassword(primaryProperties.determinePassword());
+        }
+        properties.afterPropertiesSet();
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // Fail fast so that reads fall back to the primary instead of waiting out the default 30s
+        dataSource.setConnectionTimeout(1000);
+        binder.bind("globalvault.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingPolicy replicaRoutingPolicy(@Qualifier("replicaDataSource") DataSource replica,
+                                                     @Value("${globalvault.datasource.replica.stickiness:5s}") Duration stickiness,
+                                                     MeterRegistry meterRegistry) {
+        return new ReplicaRoutingPolicy(replica, stickiness, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingPolicy policy) {
+        return new ReadYourWritesFilter(policy);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRoutingPolicy policy) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, policy));
+    }
+
+    // Open-in-view keeps one EntityManager per request, which by default holds on to its first connection;
+    // the first transaction of a request would then pick the database for all the others
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // Replaces the auto-configured "db" check, which would cover the replica and take every pod out of
+    // service during a replica outage that the primary is absorbing
+    @Bean
+    public HealthIndicator dbHealthContributor(@Qualifier("primaryDataSource") DataSource primary) {
+        return new DataSourceHealthIndicator(primary);
+    }
+
+    @Bean
+    public HealthIndicator readReplicaHealthIndicator(ReplicaRoutingPolicy policy) {
+        return () -> Health.up().withDetail("available", policy.isReplicaAvailable()).build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.krushit.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Hands out a replica connection inside read-only transactions when the policy allows it and a primary
+ * connection otherwise. Must sit behind a LazyConnectionDataSourceProxy, since the transaction is only
+ * marked read-only after the transaction manager has asked for its connection.
+ */
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final DataSource primary;
+    private final ReplicaRoutingPolicy policy;
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaRoutingPolicy policy) {
+        this.primary = primary;
+        this.policy = policy;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return policy.useReplica() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != primary) {
+            try {
+                return target.getConnection();
+            } catch (SQLException e) {
+                policy.replicaFailed(e);
+            }
+        }
+        return primary.getConnection();
+    }
+}
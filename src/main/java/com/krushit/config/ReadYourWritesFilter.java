@@ -0,0 +1,80 @@
+package com.krushit.config;
+
+import com.krushit.service.CountryChangeEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes across requests. The response to a request that changed a country sets a cookie with
+ * the time of the change, and requests that send it back within the stickiness window read from the
+ * primary. The cookie expires with the window, and its time is checked as well for clients that keep
+ * cookies longer.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "globalvault-last-write";
+
+    private final ReplicaRoutingPolicy policy;
+
+    // The response of the request on this thread, until it has been given the cookie
+    private final ThreadLocal<HttpServletResponse> awaitingCookie = new ThreadLocal<>();
+
+    public ReadYourWritesFilter(ReplicaRoutingPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        policy.setLastWrite(lastWrite(request));
+        awaitingCookie.set(response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            awaitingCookie.remove();
+            policy.setLastWrite(null);
+        }
+    }
+
+    private static Long lastWrite(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // After commit, while the controller has yet to write the response; a request that changes many
+    // countries sets the cookie once, at its first change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(CountryChangeEvent event) {
+        HttpServletResponse response = awaitingCookie.get();
+        if (event.remote() || response == null || response.isCommitted()) {
+            return;
+        }
+        awaitingCookie.remove();
+        Duration stickiness = policy.getStickiness();
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(System.currentTimeMillis()))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(Duration.ofSeconds(Math.max(1, (stickiness.toMillis() + 999) / 1000)))
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
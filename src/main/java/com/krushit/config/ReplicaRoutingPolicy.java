@@ -0,0 +1,122 @@
+package com.krushit.config;
+
+import com.krushit.service.CountryChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Decides whether a read-only transaction may run on the replica. Reads stay on the primary for the
+ * stickiness window after the client's own last change, so a writer sees its change: a thread that
+ * changed a country remembers when, and each request brings the time of its client's last write along
+ * in a cookie (see {@link ReadYourWritesFilter}). Other clients, and changes replayed from other instances, do not hold
+ * reads on the primary. Reads also stay on the primary while the replica is failing, until a health
+ * check succeeds again.
+ */
+public class ReplicaRoutingPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingPolicy.class);
+
+    private final DataSource replica;
+    private final Duration stickiness;
+
+    // Epoch millis of the last write by the client the current thread works for; wall-clock time, since
+    // it travels between requests and instances
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicaRoutingPolicy(DataSource replica, Duration stickiness, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.stickiness = stickiness;
+        Gauge.builder("globalvault.datasource.replica.available", this, policy -> policy.replicaAvailable ? 1 : 0)
+                .description("1 while read-only transactions may use the replica, 0 while they fall back to the primary")
+                .register(meterRegistry);
+    }
+
+    public boolean useReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaAvailable
+                && !DataSourceRoute.isPinnedToPrimary()
+                && !wroteRecently();
+    }
+
+    private boolean wroteRecently() {
+        Long writtenAt = lastWrite.get();
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < stickiness.toMillis();
+    }
+
+    public Duration getStickiness() {
+        return stickiness;
+    }
+
+    Long getLastWrite() {
+        return lastWrite.get();
+    }
+
+    // Set for each request from what its client sent, and cleared after it
+    void setLastWrite(Long writtenAt) {
+        if (writtenAt == null) {
+            lastWrite.remove();
+        } else {
+            lastWrite.set(writtenAt);
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    // Runs when the change is published, ahead of the listeners that reload rows
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCountryChanged(CountryChangeEvent event) {
+        if (!event.remote()) {
+            lastWrite.set(System.currentTimeMillis());
+        }
+    }
+
+    // And again on commit, in case the transaction took longer than the window
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCountryChangeCommitted(CountryChangeEvent event) {
+        onCountryChanged(event);
+    }
+
+    void replicaFailed(SQLException e) {
+        if (replicaAvailable) {
+            replicaAvailable = false;
+            log.warn("Read replica unavailable, reading from the primary: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${globalvault.datasource.replica.health-check-interval:5s}")
+    public void checkReplica() {
+        boolean healthy;
+        String problem = null;
+        try (Connection connection = replica.getConnection()) {
+            healthy = connection.isValid(1);
+        } catch (SQLException e) {
+            healthy = false;
+            problem = e.getMessage();
+        }
+        if (healthy && !replicaAvailable) {
+            log.info("Read replica is available again");
+        } else if (!healthy && replicaAvailable) {
+            log.warn("Read replica failed its health check, reading from the primary: {}", problem);
+        }
+        replicaAvailable = healthy;
+    }
+}
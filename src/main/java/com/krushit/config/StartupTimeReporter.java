@@ -0,0 +1,37 @@
+package com.krushit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to ready as a container sees it. Boot's application.ready.time starts when SpringApplication.run
+ * is called; JVM start-up and class loading before that are what a CDS archive saves, so the uptime at
+ * ready is published next to it.
+ */
+@Component
+public class StartupTimeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("globalvault.startup.jvm.ready", () -> uptimeMillis, TimeUnit.MILLISECONDS)
+                .description("JVM uptime when the application became ready to serve requests")
+                .register(meterRegistry);
+        log.info("Ready in {} ms ({} ms since JVM start)",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : null, uptimeMillis);
+    }
+}
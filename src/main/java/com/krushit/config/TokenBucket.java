@@ -0,0 +1,36 @@
+package com.krushit.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket holding up to burst tokens, refilled at a fixed rate. Rather than a token count and a
+ * refill timestamp it keeps a single value, the time at which the bucket will be full again, so taking
+ * a token is one compare-and-set and no thread ever waits for a lock.
+ */
+final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(long nanosPerToken, int burst, long now) {
+        this.nanosPerToken = nanosPerToken;
+        this.capacityNanos = nanosPerToken * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // 0 when a token was taken, otherwise the nanoseconds until the next one is available
+    long tryTake(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.krushit.controller;
+
+import com.krushit.service.CountryAnalytics;
+import com.krushit.service.CountryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rankings, percentiles and group-bys over population, area and density, answered from the in-memory
+ * CountryAnalytics columns without a query. Served by both the MVC and the reactive stack.
+ */
+@RestController
+@RequestMapping("/api/countries/analytics")
+@CrossOrigin(origins = "*")
+public class CountryAnalyticsController {
+
+    @Autowired
+    private CountryService countryService;
+
+    @GetMapping("/top")
+    public ResponseEntity<?> getTopCountries(@RequestParam(defaultValue = "population") String by,
+                                             @RequestParam(required = false) Integer limit,
+                                             @RequestParam(defaultValue = "desc") String order) {
+        try {
+            boolean ascending = parseOrder(order);
+            return ResponseEntity.ok(countryService.getTopCountries(CountryAnalytics.Metric.parse(by), limit, ascending));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    @GetMapping("/percentiles")
+    public ResponseEntity<?> getPercentiles(@RequestParam(defaultValue = "population") String of,
+                                            @RequestParam(defaultValue = "50,90,99") String p) {
+        try {
+            CountryAnalytics.Metric metric = CountryAnalytics.Metric.parse(of);
+            List<Double> percentiles = new ArrayList<>();
+            for (String value : p.split(",")) {
+                percentiles.add(Double.valueOf(value.strip()));
+            }
+            Map<String, Double> values = new LinkedHashMap<>();
+            countryService.getPercentiles(metric, percentiles).forEach((percentile, value) ->
+                    values.put(percentile == Math.rint(percentile) ? Long.toString(percentile.longValue()) : percentile.toString(), value));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("of", metric.name().toLowerCase(Locale.ROOT));
+            response.put("countries", countryService.countCountriesWith(metric));
+            response.put("percentiles", values);
+            return ResponseEntity.ok(response);
+        } catch (NumberFormatException e) {
+            return badRequest(new IllegalArgumentException("Percentiles must be numbers, e.g. p=50,90,99"));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    @GetMapping("/group-by/{dimension}")
+    public ResponseEntity<?> groupBy(@PathVariable String dimension,
+                                     @RequestParam(defaultValue = "population") String of) {
+        try {
+            return ResponseEntity.ok(countryService.aggregateCountries(CountryAnalytics.Dimension.parse(dimension),
+                    CountryAnalytics.Metric.parse(of)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    private static boolean parseOrder(String order) {
+        if ("asc".equalsIgnoreCase(order)) {
+            return true;
+        }
+        if ("desc".equalsIgnoreCase(order)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown order '" + order + "'; use asc or desc");
+    }
+
+    private static ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+}
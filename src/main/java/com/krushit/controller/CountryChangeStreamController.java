@@ -0,0 +1,60 @@
+package com.krushit.controller;
+
+import com.krushit.service.CountryChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.krushit.controller.CountryResponses.describeStatistics;
+
+/**
+ * Server-sent events for CountryChangeFeed. Served by both the MVC and the reactive stack. Browsers
+ * resume with the Last-Event-ID header on their own; pages pass the position they were rendered at as
+ * after, so nothing between rendering and connecting is lost. A stream ends after max-age so it never
+ * runs into the async request timeout, and on shutdown; either way the client reconnects from where it was.
+ */
+@RestController
+@RequestMapping("/api/countries/changes")
+@CrossOrigin(origins = "*")
+public class CountryChangeStreamController {
+
+    @Autowired
+    private CountryChangeFeed changeFeed;
+
+    @Value("${globalvault.changes.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+
+    @Value("${globalvault.changes.max-age:5m}")
+    private Duration maxAge;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                       @RequestParam(required = false) String after) {
+        Flux<ServerSentEvent<Object>> deltas = changeFeed.follow(lastEventId != null ? lastEventId : after)
+                .map(CountryChangeStreamController::toEvent);
+        // Comments keep proxies from closing an idle stream; EventSource ignores them
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+        return Flux.merge(deltas, heartbeats).take(maxAge).takeUntilOther(changeFeed.closing());
+    }
+
+    private static ServerSentEvent<Object> toEvent(CountryChangeFeed.Delta delta) {
+        Object data = switch (delta.kind()) {
+            case CREATED, UPDATED -> delta.country();
+            case DELETED -> Map.of("id", delta.countryId());
+            case STATISTICS -> describeStatistics(delta.statistics());
+            case RESET -> Map.of();
+        };
+        return ServerSentEvent.builder(data)
+                .id(delta.id())
+                .event(delta.kind().name().toLowerCase(Locale.ROOT))
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.krushit.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.krushit.dto.CountryField;
+import com.krushit.entity.Country;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes projected country rows straight to a JsonGenerator instead of binding entities with Jackson.
+ * OBJECTS repeats the field names in every element like the full representation does; COMPACT names
+ * the fields once and sends each row as a positional array, which roughly halves large payloads.
+ */
+final class CountryJsonWriter {
+
+    enum Layout {
+        OBJECTS, COMPACT;
+
+        static Layout parse(String format) {
+            if (format == null || format.isBlank()) {
+                return OBJECTS;
+            }
+            try {
+                return valueOf(format.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format '" + format + "'; expected objects or compact");
+            }
+        }
+    }
+
+    private final List<CountryField> fields;
+    private final Layout layout;
+
+    CountryJsonWriter(List<CountryField> fields, Layout layout) {
+        this.fields = fields;
+        this.layout = layout;
+    }
+
+    // Opens the row container: '[' for objects, '{"fields":[...],"rows":[' for compact
+    void writeStart(JsonGenerator generator) throws IOException {
+        if (layout == Layout.COMPACT) {
+            generator.writeStartObject();
+            writeFieldNames(generator);
+            generator.writeArrayFieldStart("rows");
+        } else {
+            generator.writeStartArray();
+        }
+    }
+
+    void writeEnd(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        if (layout == Layout.COMPACT) {
+            generator.writeEndObject();
+        }
+    }
+
+    void writeFieldNames(JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("fields");
+        for (CountryField field : fields) {
+            generator.writeString(field.getProperty());
+        }
+        generator.writeEndArray();
+    }
+
+    void writeRow(JsonGenerator generator, Object[] row) throws IOException {
+        if (layout == Layout.COMPACT) {
+            generator.writeStartArray();
+            for (Object value : row) {
+                writeValue(generator, value);
+            }
+            generator.writeEndArray();
+        } else {
+            writeObject(generator, row);
+        }
+    }
+
+    void writeCountry(JsonGenerator generator, Country country) throws IOException {
+        writeRow(generator, CountryField.valuesOf(country, fields));
+    }
+
+    // Rows as members of an enclosing object: "countries":[...] or "fields":[...],"rows":[...]
+    void writeMembers(JsonGenerator generator, List<Object[]> rows) throws IOException {
+        if (layout == Layout.COMPACT) {
+            writeFieldNames(generator);
+            generator.writeArrayFieldStart("rows");
+        } else {
+            generator.writeArrayFieldStart("countries");
+        }
+        for (Object[] row : rows) {
+            writeRow(generator, row);
+        }
+        generator.writeEndArray();
+    }
+
+    // A row as a JSON object whatever the layout; used for NDJSON lines
+    void writeObject(JsonGenerator generator, Object[] row) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < row.length; i++) {
+            generator.writeFieldName(fields.get(i).getProperty());
+            writeValue(generator, row[i]);
+        }
+        generator.writeEndObject();
+    }
+
+    // Column values are only strings and boxed numbers; writeObject would go through the ObjectMapper per value
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String text) {
+            generator.writeString(text);
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Double number) {
+            generator.writeNumber(number);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+}
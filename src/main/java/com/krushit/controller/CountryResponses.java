@@ -0,0 +1,157 @@
+package com.krushit.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krushit.dto.BulkImportReport;
+import com.krushit.dto.CatalogStatistics;
+import com.krushit.dto.ContinentStatistics;
+import com.krushit.dto.CountryField;
+import com.krushit.dto.ImportRowResult;
+import com.krushit.entity.Country;
+import com.krushit.service.CountryRowReader;
+import com.krushit.service.CountryService;
+import com.krushit.service.CsvCountryRowReader;
+import com.krushit.service.NdjsonCountryRowReader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Validators and response bodies shared by the MVC and reactive country controllers
+final class CountryResponses {
+    
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final int MAX_IMPORT_RECORD_LENGTH = 64 * 1024;
+    
+    private CountryResponses() {
+    }
+    
+    static String countryETag(Country country) {
+        return "\"" + country.revision() + "\"";
+    }
+    
+    // Revisions named by an If-Match header; null for "*" or no header, which accept any revision
+    static List<String> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        List<String> revisions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.strip();
+            // Weak validators never match under If-Match's strong comparison
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                revisions.add(value.substring(1, value.length() - 1));
+            }
+        }
+        return revisions;
+    }
+    
+    static Map<String, String> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+    
+    static ResponseEntity<?> badRequest(String message) {
+        return ResponseEntity.badRequest().body(error(message));
+    }
+    
+    // The unique name constraint rejects duplicates atomically; any other violation is not the client's fault
+    static ResponseEntity<?> nameTaken(String name, DataIntegrityViolationException e, CountryService countryService) {
+        if (!countryService.existsByName(name)) {
+            throw e;
+        }
+        return badRequest("Country with name '" + name + "' already exists");
+    }
+    
+    // Full entities unless the caller asked for a sparse fieldset or the compact layout
+    static ResponseEntity<?> countryList(List<Country> countries, String fields, String format, ObjectMapper objectMapper) {
+        if (fields == null && format == null) {
+            return ResponseEntity.ok(countries);
+        }
+        try {
+            CountryJsonWriter writer = new CountryJsonWriter(CountryField.parse(fields), CountryJsonWriter.Layout.parse(format));
+            return jsonResponse(generator -> {
+                writer.writeStart(generator);
+                for (Country country : countries) {
+                    writer.writeCountry(generator, country);
+                }
+                writer.writeEnd(generator);
+            }, objectMapper);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+    
+    interface JsonBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+    
+    static ResponseEntity<byte[]> jsonResponse(JsonBody body, ObjectMapper objectMapper) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer)) {
+            body.write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(buffer.toByteArray());
+    }
+    
+    static Map<String, Object> describeStatistics(CatalogStatistics catalog) {
+        ContinentStatistics total = catalog.getTotal();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalCountries", total.countries());
+        statistics.put("continents", catalog.getContinents());
+        statistics.put("countriesByContinent", catalog.getCountsByContinent());
+        statistics.put("totalPopulation", total.totalPopulation());
+        statistics.put("averagePopulation", total.getAveragePopulation());
+        statistics.put("totalArea", total.totalArea());
+        statistics.put("populationDensity", total.getPopulationDensity());
+        statistics.put("continentStatistics", catalog.getByContinent().values());
+        return statistics;
+    }
+    
+    static Map<String, Object> describeBulkImport(BulkImportReport report) {
+        long created = report.getCount(ImportRowResult.Status.CREATED);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Created " + created + " countries");
+        response.put("created", created);
+        response.put("duplicates", report.getCount(ImportRowResult.Status.DUPLICATE));
+        response.put("invalid", report.getCount(ImportRowResult.Status.INVALID));
+        response.put("failed", report.getCount(ImportRowResult.Status.FAILED));
+        response.put("results", report.getResults());
+        return response;
+    }
+    
+    static Map<String, Object> describeStreamImport(BulkImportReport report) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("processed", report.getProcessed());
+        response.put("created", report.getCount(ImportRowResult.Status.CREATED));
+        response.put("duplicates", report.getCount(ImportRowResult.Status.DUPLICATE));
+        response.put("invalid", report.getCount(ImportRowResult.Status.INVALID));
+        response.put("failed", report.getCount(ImportRowResult.Status.FAILED));
+        response.put("errors", report.getResults());
+        response.put("errorsOmitted", report.getOmitted());
+        return response;
+    }
+    
+    static CountryRowReader rowReader(MediaType contentType, InputStream body, ObjectMapper objectMapper) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(body, contentType.getCharset() != null
+                ? contentType.getCharset() : StandardCharsets.UTF_8));
+        return APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? new NdjsonCountryRowReader(reader, objectMapper.readerFor(Country.class), MAX_IMPORT_RECORD_LENGTH)
+                : new CsvCountryRowReader(reader, MAX_IMPORT_RECORD_LENGTH);
+    }
+}
@@ -1,155 +1,319 @@
 package com.krushit.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krushit.dto.BulkImportReport;
+import com.krushit.dto.CountryField;
+import com.krushit.dto.CountryPage;
+import com.krushit.dto.CountryQuery;
 import com.krushit.entity.Country;
+import com.krushit.service.CatalogVersion;
+import com.krushit.service.CountryImportService;
+import com.krushit.service.CountryRowReader;
 import com.krushit.service.CountryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import software.amazon.awssdk.services.lambda.LambdaClient;
-import software.amazon.awssdk.services.lambda.model.InvokeRequest;
-import software.amazon.awssdk.services.lambda.model.InvokeResponse;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static com.krushit.controller.CountryResponses.*;
+
+// Serves the API on Spring MVC; ReactiveCountryController takes over the same paths under the reactive profile
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/countries")
 @CrossOrigin(origins = "*")
 public class CountryRestController {
     
     @Autowired
     private CountryService countryService;
-
+    
     @Autowired
-    private LambdaClient lambdaClient;
-
-    @Value("${aws.lambda.function.name}")
-    private String lambdaFunctionName;
+    private CountryImportService countryImportService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
     
     @GetMapping
-    public ResponseEntity<List<Country>> getAllCountries() {
-        List<Country> countries = countryService.getAllCountries();
-        return ResponseEntity.ok(countries);
+    public ResponseEntity<StreamingResponseBody> getAllCountries(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String format,
+            WebRequest request) {
+        List<CountryField> selected;
+        CountryJsonWriter writer;
+        try {
+            selected = CountryField.parse(fields);
+            writer = new CountryJsonWriter(selected, CountryJsonWriter.Layout.parse(format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> objectMapper.writeValue(outputStream, error(e.getMessage())));
+        }
+        boolean ndjson = accept != null && accept.contains(APPLICATION_NDJSON.toString());
+        // The query string is part of the cache key already; only the Accept-dependent variant needs its own tag
+        if (checkCatalogNotModified(request, ndjson ? "ndjson" : null)) {
+            return null;
+        }
+        if (ndjson) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).contentType(APPLICATION_NDJSON)
+                    .body(streamCountriesAsNdjson(selected, writer));
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).contentType(MediaType.APPLICATION_JSON)
+                .body(streamCountriesAsJson(selected, writer));
+    }
+    
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getCountriesPage(@RequestParam Integer limit,
+                                              @RequestParam(required = false) String after) {
+        try {
+            CountryPage page = countryService.getCountriesPage(after, limit);
+            Map<String, Object> response = new HashMap<>();
+            response.put("countries", page.countries());
+            response.put("nextCursor", page.nextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+    
+    @GetMapping(params = {"after", "!limit"})
+    public ResponseEntity<?> getCountriesPageAfter(@RequestParam String after) {
+        return getCountriesPage(null, after);
+    }
+    
+    @GetMapping("/query")
+    public ResponseEntity<?> queryCountries(CountryQuery query, Pageable pageable,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestParam(required = false) String format) {
+        try {
+            List<CountryField> selected = CountryField.parse(fields);
+            CountryJsonWriter writer = new CountryJsonWriter(selected, CountryJsonWriter.Layout.parse(format));
+            Page<Object[]> result = countryService.queryCountryColumns(query, selected, pageable);
+            return jsonResponse(generator -> {
+                generator.writeStartObject();
+                writer.writeMembers(generator, result.getContent());
+                generator.writeNumberField("page", result.getNumber());
+                generator.writeNumberField("size", result.getSize());
+                generator.writeNumberField("totalElements", result.getTotalElements());
+                generator.writeNumberField("totalPages", result.getTotalPages());
+                generator.writeEndObject();
+            }, objectMapper);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Country> getCountryById(@PathVariable Long id) {
+    public ResponseEntity<Country> getCountryById(@PathVariable Long id, WebRequest request) {
         Optional<Country> country = countryService.getCountryById(id);
-        return country.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return conditionalCountry(country, request);
     }
     
     @GetMapping("/name/{name}")
-    public ResponseEntity<Country> getCountryByName(@PathVariable String name) {
+    public ResponseEntity<Country> getCountryByName(@PathVariable String name, WebRequest request) {
         Optional<Country> country = countryService.getCountryByName(name);
-        return country.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return conditionalCountry(country, request);
+    }
+    
+    // Lookups are served from the cache, so a matching validator costs neither a query nor serialization
+    private ResponseEntity<Country> conditionalCountry(Optional<Country> country, WebRequest request) {
+        if (country.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Country found = country.get();
+        long lastModified = found.getLastModified() == null ? -1 : found.getLastModified().toEpochMilli();
+        if (request.checkNotModified(countryETag(found), lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok(found);
+    }
+    
+    // Sets ETag and Last-Modified from the catalog version and reports whether the client copy is current
+    private boolean checkCatalogNotModified(WebRequest request, String variant) {
+        CatalogVersion.Stamp version = countryService.getCatalogVersion();
+        String tag = variant == null ? version.tag() : version.tag() + "-" + variant;
+        return request.checkNotModified("\"" + tag + "\"", version.lastModified().toEpochMilli());
     }
     
     @GetMapping("/continent/{continent}")
-    public ResponseEntity<List<Country>> getCountriesByContinent(@PathVariable String continent) {
+    public ResponseEntity<?> getCountriesByContinent(@PathVariable String continent,
+                                                     @RequestParam(required = false) String fields,
+                                                     @RequestParam(required = false) String format) {
         List<Country> countries = countryService.getCountriesByContinent(continent);
-        return ResponseEntity.ok(countries);
+        return countryList(countries, fields, format, objectMapper);
     }
 
     @GetMapping("/search/name")
-    public ResponseEntity<List<Country>> searchCountriesByName(@RequestParam String name) {
+    public ResponseEntity<?> searchCountriesByName(@RequestParam String name,
+                                                   @RequestParam(required = false) String fields,
+                                                   @RequestParam(required = false) String format) {
         List<Country> countries = countryService.searchCountriesByName(name);
-        return ResponseEntity.ok(countries);
+        return countryList(countries, fields, format, objectMapper);
     }
     
     @GetMapping("/search/continent")
-    public ResponseEntity<List<Country>> searchCountriesByContinent(@RequestParam String continent) {
+    public ResponseEntity<?> searchCountriesByContinent(@RequestParam String continent,
+                                                        @RequestParam(required = false) String fields,
+                                                        @RequestParam(required = false) String format) {
         List<Country> countries = countryService.searchCountriesByContinent(continent);
-        return ResponseEntity.ok(countries);
+        return countryList(countries, fields, format, objectMapper);
+    }
+    
+    @GetMapping("/typeahead")
+    public ResponseEntity<?> suggestCountries(@RequestParam String q,
+                                              @RequestParam(required = false) String continent,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(required = false) String fields) {
+        List<Country> countries = countryService.suggestCountries(q, continent, limit);
+        return countryList(countries, fields, null, objectMapper);
     }
     
+    @GetMapping("/continents")
     public ResponseEntity<List<String>> getAllContinents() {
         List<String> continents = countryService.getAllContinents();
         return ResponseEntity.ok(continents);
     }
     
     @GetMapping("/population/greater-than/{population}")
-    public ResponseEntity<List<Country>> getCountriesWithPopulationGreaterThan(@PathVariable Long population) {
+    public ResponseEntity<?> getCountriesWithPopulationGreaterThan(@PathVariable Long population,
+                                                                   @RequestParam(required = false) String fields,
+                                                                   @RequestParam(required = false) String format) {
         List<Country> countries = countryService.getCountriesWithPopulationGreaterThan(population);
-        return ResponseEntity.ok(countries);
+        return countryList(countries, fields, format, objectMapper);
     }
     
     @GetMapping("/statistics")
-    public ResponseEntity<Map<String, Object>> getStatistics() {
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("totalCountries", countryService.getTotalCountryCount());
-        statistics.put("continents", countryService.getAllContinents());
-        statistics.put("countriesByContinent", countryService.getCountryCountByContinent());
-        return ResponseEntity.ok(statistics);
-    }
-    
-      @PostMapping
-    public ResponseEntity<?> createCountry(@RequestBody Country country) {
-        if (countryService.existsByName(country.getName())) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Country with name '" + country.getName() + "' already exists");
-            return ResponseEntity.badRequest().body(error);
+    public ResponseEntity<Map<String, Object>> getStatistics(WebRequest request) {
+        if (checkCatalogNotModified(request, null)) {
+            return null;
+        }
+        return ResponseEntity.ok(describeStatistics(countryService.getStatistics()));
+    }
+    
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStatistics() {
+        return ResponseEntity.ok(describeStatistics(countryService.rebuildStatistics()));
+    }
+    
+    @GetMapping("/cache/statistics")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStatistics() {
+        return ResponseEntity.ok(countryService.getCacheStatistics());
+    }
+    
+    @PostMapping
+    public ResponseEntity<?> createCountry(@Valid @RequestBody Country country) {
+        Country saved;
+        try {
+            saved = countryService.saveCountry(country);
+        } catch (DataIntegrityViolationException e) {
+            return nameTaken(country.getName(), e, countryService);
         }
-        Country saved = countryService.saveCountry(country);
-        triggerLambda("Country Added", saved.getName());
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(countryETag(saved)).body(saved);
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateCountry(@PathVariable Long id, @Valid @RequestBody Country countryDetails) {
-        Country updatedCountry = countryService.updateCountry(id, countryDetails);
+    public ResponseEntity<?> updateCountry(@PathVariable Long id, @Valid @RequestBody Country countryDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Country updatedCountry;
+        try {
+            updatedCountry = countryService.updateCountry(id, countryDetails, parseIfMatch(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            // 412 when the client's If-Match is stale, 409 when a concurrent update won the race
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .body(error(ifMatch != null ? e.getMessage() : "Country with ID " + id + " was modified concurrently"));
+        } catch (DataIntegrityViolationException e) {
+            return nameTaken(countryDetails.getName(), e, countryService);
+        }
         if (updatedCountry != null) {
-            return ResponseEntity.ok(updatedCountry);
+            return ResponseEntity.ok().eTag(countryETag(updatedCountry)).body(updatedCountry);
         } else {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Country with ID " + id + " not found");
             return ResponseEntity.notFound().build();
         }
     }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteCountry(@PathVariable Long id) {
-        boolean deleted = countryService.deleteCountry(id);
+        boolean deleted;
+        try {
+            deleted = countryService.deleteCountry(id);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error(e.getMessage()));
+        }
 
         if (deleted) {
-            triggerLambda("Country Deleted", "ID=" + id);
             Map<String, String> msg = new HashMap<>();
             msg.put("message", "Country deleted successfully");
             return ResponseEntity.ok(msg);
         } else {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Country with ID " + id + " not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Country with ID " + id + " not found"));
         }
     }
 
     @PostMapping("/bulk")
-    public ResponseEntity<?> createCountries(@Valid @RequestBody List<Country> countries) {
-        List<Country> savedCountries = countries.stream()
-                .filter(country -> !countryService.existsByName(country.getName()))
-                .map(countryService::saveCountry)
-                .toList();
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Created " + savedCountries.size() + " countries");
-        response.put("countries", savedCountries);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<?> createCountries(@RequestBody List<Country> countries) {
+        BulkImportReport report = countryImportService.importCountries(countries);
+        return ResponseEntity.status(HttpStatus.CREATED).body(describeBulkImport(report));
     }
 
-    private void triggerLambda(String action, String details) {
-        String payload = String.format("{\"action\": \"%s\", \"details\": \"%s\"}", action, details);
-
-        InvokeRequest request = InvokeRequest.builder()
-                .functionName(LAMBDA_FUNCTION_NAME)
-                .payload(StandardCharsets.UTF_8.encode(payload))
-                .build();
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importCountries(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                             InputStream body) throws IOException {
+        BulkImportReport report;
+        try (CountryRowReader rows = rowReader(contentType, body, objectMapper)) {
+            report = countryImportService.importStream(rows);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        return ResponseEntity.ok(describeStreamImport(report));
+    }
 
-        InvokeResponse response = lambdaClient.invoke(request);
-        System.out.println("Lambda invoked: " + response.statusCode());
+    private StreamingResponseBody streamCountriesAsJson(List<CountryField> fields, CountryJsonWriter writer) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                writer.writeStart(generator);
+                countryService.streamAllCountries(fields, row -> {
+                    try {
+                        writer.writeRow(generator, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.writeEnd(generator);
+            }
+        };
+    }
+    
+    private StreamingResponseBody streamCountriesAsNdjson(List<CountryField> fields, CountryJsonWriter writer) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                countryService.streamAllCountries(fields, row -> {
+                    try {
+                        writer.writeObject(generator, row);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
     }
-} 
+}
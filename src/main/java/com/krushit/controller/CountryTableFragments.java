@@ -0,0 +1,91 @@
+package com.krushit.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.krushit.config.DataSourceRoute;
+import com.krushit.dto.CountryQuery;
+import com.krushit.entity.Country;
+import com.krushit.service.CountryChangeFeed;
+import com.krushit.service.CountryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Pages of the countries table rendered to HTML once per catalog version. A page is looked up under the
+ * version it was requested at, so once a country changes every page is rendered afresh on its next visit
+ * and the stale ones age out of the cache. The change position is taken before the page is read, like
+ * the rest of the page, so the script replays anything committed while it was rendered. Pages are read
+ * from the primary, as a replica that lags behind the version would have them cached with stale rows.
+ */
+@Component
+public class CountryTableFragments {
+
+    private static final String TEMPLATE = "fragments/country-table";
+
+    public record RenderedPage(int page, int totalPages, long totalElements, String changePosition,
+                               String rows, String data) {
+    }
+
+    private final Cache<List<Object>, RenderedPage> pages;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryChangeFeed changeFeed;
+
+    @Autowired
+    private ITemplateEngine templateEngine;
+
+    public CountryTableFragments(@Value("${globalvault.web.page-cache-size:256}") long maximumSize,
+                                 MeterRegistry meterRegistry) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "countries.pages");
+    }
+
+    public RenderedPage page(int page, int pageSize) {
+        String version = countryService.getCatalogVersion().tag();
+        // Past the end, e.g. a bookmark from before countries were deleted: the last page, under its own key
+        long total = countryService.getTotalCountryCount();
+        int lastPage = total == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, (total - 1) / pageSize);
+        int shown = Math.max(0, Math.min(page, lastPage));
+        return pages.get(List.of(version, shown, pageSize), ignored -> render(shown, pageSize));
+    }
+
+    private RenderedPage render(int page, int pageSize) {
+        try (DataSourceRoute.Pin primary = DataSourceRoute.pinToPrimary()) {
+            return renderFromPrimary(page, pageSize);
+        }
+    }
+
+    private RenderedPage renderFromPrimary(int page, int pageSize) {
+        String changePosition = changeFeed.position();
+        Page<Country> countries = countryService.queryCountries(CountryQuery.unfiltered(), PageRequest.of(page, pageSize));
+        // The total comes from the statistics snapshot, which can trail a delete by a moment
+        if (countries.isEmpty() && page > 0 && countries.getTotalPages() > 0) {
+            countries = countryService.queryCountries(CountryQuery.unfiltered(),
+                    PageRequest.of(countries.getTotalPages() - 1, pageSize));
+        }
+        // Numbers are formatted with explicit separators, so one rendering serves every locale
+        Context context = new Context(Locale.ROOT);
+        context.setVariable("countries", countries.getContent());
+        return new RenderedPage(countries.getNumber(), countries.getTotalPages(), countries.getTotalElements(),
+                changePosition,
+                templateEngine.process(TEMPLATE, Set.of("rows"), context),
+                templateEngine.process(TEMPLATE, Set.of("data"), context));
+    }
+}
@@ -0,0 +1,23 @@
+package com.krushit.controller;
+
+import com.krushit.service.NotificationDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+    
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+    
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(notificationDispatcher.getStatus());
+    }
+}
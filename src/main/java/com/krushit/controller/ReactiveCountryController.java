@@ -0,0 +1,395 @@
+package com.krushit.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krushit.dto.BulkImportReport;
+import com.krushit.dto.CountryCursor;
+import com.krushit.dto.CountryField;
+import com.krushit.dto.CountryQuery;
+import com.krushit.entity.Country;
+import com.krushit.repository.ReactiveCountryRepository;
+import com.krushit.service.CatalogVersion;
+import com.krushit.service.CountryImportService;
+import com.krushit.service.CountryRowReader;
+import com.krushit.service.CountryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import static com.krushit.controller.CountryResponses.*;
+
+/**
+ * The country API on WebFlux, for the reactive profile. Full lists and population scans stream from
+ * R2DBC as the client reads them. Everything else goes through CountryService on the boundedElastic
+ * scheduler: mostly cache, search index and statistics hits that return at once, plus writes, which
+ * keep their JPA transactions, change log and outbox.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/countries")
+@CrossOrigin(origins = "*")
+public class ReactiveCountryController {
+
+    // Rows encoded per response chunk; also how far the query runs ahead of a slow client
+    private static final int ROWS_PER_CHUNK = 256;
+    private static final int IMPORT_PREFETCH = 16;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryImportService countryImportService;
+
+    @Autowired
+    private ReactiveCountryRepository reactiveCountryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllCountries(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                  @RequestParam(required = false) String fields,
+                                                                  @RequestParam(required = false) String format,
+                                                                  ServerWebExchange exchange) {
+        List<CountryField> selected;
+        CountryJsonWriter writer;
+        try {
+            selected = CountryField.parse(fields);
+            writer = new CountryJsonWriter(selected, CountryJsonWriter.Layout.parse(format));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(streamedBadRequest(e.getMessage(), exchange.getResponse().bufferFactory()));
+        }
+        boolean ndjson = accept != null && accept.contains(APPLICATION_NDJSON.toString());
+        CatalogVersion.Stamp version = countryService.getCatalogVersion();
+        // WebFlux answers 304 from these validators before subscribing to the body
+        return Mono.just(ResponseEntity.ok()
+                .eTag(ndjson ? version.tag() + "-ndjson" : version.tag())
+                .lastModified(version.lastModified())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(stream(reactiveCountryRepository.streamColumns(selected), writer, ndjson,
+                        exchange.getResponse().bufferFactory())));
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<ResponseEntity<?>> getCountriesPage(@RequestParam Integer limit,
+                                                    @RequestParam(required = false) String after) {
+        int pageSize = limit == null ? CountryService.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(limit, CountryService.MAX_PAGE_SIZE));
+        CountryCursor cursor;
+        try {
+            cursor = after == null || after.isBlank() ? null : CountryCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(badRequest(e.getMessage()));
+        }
+        // One extra row tells whether another page follows
+        return reactiveCountryRepository.findPage(cursor, pageSize + 1).collectList().map(countries -> {
+            List<Country> page = countries.size() > pageSize ? countries.subList(0, pageSize) : countries;
+            Map<String, Object> response = new HashMap<>();
+            response.put("countries", page);
+            response.put("nextCursor", countries.size() > pageSize ? CountryCursor.of(page.get(pageSize - 1)).encode() : null);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    @GetMapping(params = {"after", "!limit"})
+    public Mono<ResponseEntity<?>> getCountriesPageAfter(@RequestParam String after) {
+        return getCountriesPage(null, after);
+    }
+
+    @GetMapping("/query")
+    public Mono<ResponseEntity<?>> queryCountries(CountryQuery query, Pageable pageable,
+                                                  @RequestParam(required = false) String fields,
+                                                  @RequestParam(required = false) String format) {
+        return blocking(() -> {
+            try {
+                List<CountryField> selected = CountryField.parse(fields);
+                CountryJsonWriter writer = new CountryJsonWriter(selected, CountryJsonWriter.Layout.parse(format));
+                Page<Object[]> result = countryService.queryCountryColumns(query, selected, pageable);
+                return jsonResponse(generator -> {
+                    generator.writeStartObject();
+                    writer.writeMembers(generator, result.getContent());
+                    generator.writeNumberField("page", result.getNumber());
+                    generator.writeNumberField("size", result.getSize());
+                    generator.writeNumberField("totalElements", result.getTotalElements());
+                    generator.writeNumberField("totalPages", result.getTotalPages());
+                    generator.writeEndObject();
+                }, objectMapper);
+            } catch (IllegalArgumentException e) {
+                return badRequest(e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Country>> getCountryById(@PathVariable Long id) {
+        return blocking(() -> conditionalCountry(countryService.getCountryById(id)));
+    }
+
+    @GetMapping("/name/{name}")
+    public Mono<ResponseEntity<Country>> getCountryByName(@PathVariable String name) {
+        return blocking(() -> conditionalCountry(countryService.getCountryByName(name)));
+    }
+
+    private static ResponseEntity<Country> conditionalCountry(Optional<Country> country) {
+        if (country.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Country found = country.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(countryETag(found));
+        if (found.getLastModified() != null) {
+            response.lastModified(found.getLastModified());
+        }
+        return response.body(found);
+    }
+
+    @GetMapping("/continent/{continent}")
+    public Mono<ResponseEntity<?>> getCountriesByContinent(@PathVariable String continent,
+                                                           @RequestParam(required = false) String fields,
+                                                           @RequestParam(required = false) String format) {
+        return blocking(() -> countryList(countryService.getCountriesByContinent(continent), fields, format, objectMapper));
+    }
+
+    @GetMapping("/search/name")
+    public Mono<ResponseEntity<?>> searchCountriesByName(@RequestParam String name,
+                                                         @RequestParam(required = false) String fields,
+                                                         @RequestParam(required = false) String format) {
+        return blocking(() -> countryList(countryService.searchCountriesByName(name), fields, format, objectMapper));
+    }
+
+    @GetMapping("/search/continent")
+    public Mono<ResponseEntity<?>> searchCountriesByContinent(@RequestParam String continent,
+                                                              @RequestParam(required = false) String fields,
+                                                              @RequestParam(required = false) String format) {
+        return blocking(() -> countryList(countryService.searchCountriesByContinent(continent), fields, format, objectMapper));
+    }
+
+    @GetMapping("/typeahead")
+    public Mono<ResponseEntity<?>> suggestCountries(@RequestParam String q,
+                                                    @RequestParam(required = false) String continent,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String fields) {
+        return blocking(() -> countryList(countryService.suggestCountries(q, continent, limit), fields, null, objectMapper));
+    }
+
+    @GetMapping("/continents")
+    public Mono<ResponseEntity<List<String>>> getAllContinents() {
+        return blocking(() -> ResponseEntity.ok(countryService.getAllContinents()));
+    }
+
+    @GetMapping("/population/greater-than/{population}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCountriesWithPopulationGreaterThan(@PathVariable Long population,
+                                                                                        @RequestParam(required = false) String fields,
+                                                                                        @RequestParam(required = false) String format,
+                                                                                        ServerWebExchange exchange) {
+        List<CountryField> selected;
+        CountryJsonWriter writer;
+        try {
+            selected = CountryField.parse(fields);
+            writer = new CountryJsonWriter(selected, CountryJsonWriter.Layout.parse(format));
+        } catch (IllegalArgumentException e) {
+            return Mono.just(streamedBadRequest(e.getMessage(), exchange.getResponse().bufferFactory()));
+        }
+        return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(stream(reactiveCountryRepository.findColumnsWithPopulationGreaterThan(selected, population),
+                        writer, false, exchange.getResponse().bufferFactory())));
+    }
+
+    @GetMapping("/statistics")
+    public Mono<ResponseEntity<Map<String, Object>>> getStatistics() {
+        return blocking(() -> {
+            CatalogVersion.Stamp version = countryService.getCatalogVersion();
+            return ResponseEntity.ok()
+                    .eTag(version.tag())
+                    .lastModified(version.lastModified())
+                    .body(describeStatistics(countryService.getStatistics()));
+        });
+    }
+
+    @PostMapping("/statistics/rebuild")
+    public Mono<ResponseEntity<Map<String, Object>>> rebuildStatistics() {
+        return blocking(() -> ResponseEntity.ok(describeStatistics(countryService.rebuildStatistics())));
+    }
+
+    @GetMapping("/cache/statistics")
+    public Mono<ResponseEntity<Map<String, Map<String, Object>>>> getCacheStatistics() {
+        return blocking(() -> ResponseEntity.ok(countryService.getCacheStatistics()));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createCountry(@Valid @RequestBody Country country) {
+        return blocking(() -> {
+            Country saved;
+            try {
+                saved = countryService.saveCountry(country);
+            } catch (DataIntegrityViolationException e) {
+                return nameTaken(country.getName(), e, countryService);
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(countryETag(saved)).body(saved);
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateCountry(@PathVariable Long id, @Valid @RequestBody Country countryDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return blocking(() -> {
+            Country updatedCountry;
+            try {
+                updatedCountry = countryService.updateCountry(id, countryDetails, parseIfMatch(ifMatch));
+            } catch (OptimisticLockingFailureException e) {
+                // 412 when the client's If-Match is stale, 409 when a concurrent update won the race
+                return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                        .body(error(ifMatch != null ? e.getMessage() : "Country with ID " + id + " was modified concurrently"));
+            } catch (DataIntegrityViolationException e) {
+                return nameTaken(countryDetails.getName(), e, countryService);
+            }
+            if (updatedCountry == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok().eTag(countryETag(updatedCountry)).body(updatedCountry);
+        });
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deleteCountry(@PathVariable Long id) {
+        return blocking(() -> {
+            boolean deleted;
+            try {
+                deleted = countryService.deleteCountry(id);
+            } catch (OptimisticLockingFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(error(e.getMessage()));
+            }
+            if (!deleted) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Country with ID " + id + " not found"));
+            }
+            Map<String, String> msg = new HashMap<>();
+            msg.put("message", "Country deleted successfully");
+            return ResponseEntity.ok(msg);
+        });
+    }
+
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<?>> createCountries(@RequestBody List<Country> countries) {
+        return blocking(() -> {
+            BulkImportReport report = countryImportService.importCountries(countries);
+            return ResponseEntity.status(HttpStatus.CREATED).body(describeBulkImport(report));
+        });
+    }
+
+    // The body is read through a bounded prefetch, so a large upload is parsed as it arrives
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public Mono<ResponseEntity<?>> importCountries(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                   @RequestBody Flux<DataBuffer> body) {
+        return blocking(() -> {
+            InputStream input = DataBufferUtils.subscriberInputStream(body, IMPORT_PREFETCH);
+            BulkImportReport report;
+            try (CountryRowReader rows = rowReader(contentType, input, objectMapper)) {
+                report = countryImportService.importStream(rows);
+            } catch (IllegalArgumentException e) {
+                return badRequest(e.getMessage());
+            }
+            return ResponseEntity.ok(describeStreamImport(report));
+        });
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Streamed endpoints declare their body as buffers, so the error is encoded up front
+    private ResponseEntity<Flux<DataBuffer>> streamedBadRequest(String message, DataBufferFactory buffers) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(error(message));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(Flux.just(buffers.wrap(body)));
+    }
+
+    // One generator writes the whole response; each chunk of rows is flushed into its own buffer on demand
+    private Flux<DataBuffer> stream(Flux<Object[]> rows, CountryJsonWriter writer, boolean ndjson, DataBufferFactory buffers) {
+        return Flux.using(() -> new JsonChunks(objectMapper, ndjson),
+                chunks -> Flux.concat(
+                                chunks.write(generator -> {
+                                    if (!ndjson) {
+                                        writer.writeStart(generator);
+                                    }
+                                }),
+                                rows.buffer(ROWS_PER_CHUNK).concatMap(batch -> chunks.write(generator -> {
+                                    for (Object[] row : batch) {
+                                        if (ndjson) {
+                                            writer.writeObject(generator, row);
+                                            generator.writeRaw('\n');
+                                        } else {
+                                            writer.writeRow(generator, row);
+                                        }
+                                    }
+                                })),
+                                chunks.write(generator -> {
+                                    if (!ndjson) {
+                                        writer.writeEnd(generator);
+                                    }
+                                }))
+                        .filter(bytes -> bytes.length > 0)
+                        .map(buffers::wrap),
+                JsonChunks::close);
+    }
+
+    private static final class JsonChunks {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+        private final JsonGenerator generator;
+
+        JsonChunks(ObjectMapper objectMapper, boolean ndjson) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(buffer);
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            }
+        }
+
+        Mono<byte[]> write(JsonBody body) {
+            return Mono.fromCallable(() -> {
+                body.write(generator);
+                generator.flush();
+                byte[] bytes = buffer.toByteArray();
+                buffer.reset();
+                return bytes;
+            });
+        }
+
+        void close() {
+            try {
+                generator.close();
+            } catch (IOException e) {
+                // Nothing is left to write to
+            }
+        }
+    }
+}
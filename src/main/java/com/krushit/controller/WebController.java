@@ -1,17 +1,27 @@
 package com.krushit.controller;
 
+import com.krushit.service.CountryChangeFeed;
 import com.krushit.service.CountryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 public class WebController {
     
+    private static final int COUNTRIES_PAGE_SIZE = 50;
+    
     @Autowired
     private CountryService countryService;
     
+    @Autowired
+    private CountryChangeFeed changeFeed;
+    
+    @Autowired
+    private CountryTableFragments countryTable;
+    
     @GetMapping("/")
     public String index(Model model) {
         model.addAttribute("totalCountries", countryService.getTotalCountryCount());
@@ -20,8 +30,10 @@ public class WebController {
     }
     
     @GetMapping("/countries")
-    public String countries(Model model) {
-        model.addAttribute("countries", countryService.getAllCountries());
+    public String countries(@RequestParam(defaultValue = "0") int page, Model model) {
+        // One page is rendered, from the cache while the catalog is unchanged; the page script queries filters
+        model.addAttribute("table", countryTable.page(Math.max(0, page), COUNTRIES_PAGE_SIZE));
+        model.addAttribute("pageSize", COUNTRIES_PAGE_SIZE);
         model.addAttribute("continents", countryService.getAllContinents());
         return "countries";
     }
@@ -34,6 +46,7 @@ public class WebController {
     
     @GetMapping("/statistics")
     public String statistics(Model model) {
+        model.addAttribute("changePosition", changeFeed.position());
         model.addAttribute("totalCountries", countryService.getTotalCountryCount());
         model.addAttribute("continents", countryService.getAllContinents());
         model.addAttribute("countriesByContinent", countryService.getCountryCountByContinent());
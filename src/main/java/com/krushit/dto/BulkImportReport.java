@@ -0,0 +1,56 @@
+package com.krushit.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Accumulates per-row outcomes of an import; keeps at most maxResults rows so large imports stay bounded
+public class BulkImportReport {
+    
+    private final Map<ImportRowResult.Status, Long> counts = new EnumMap<>(ImportRowResult.Status.class);
+    private final List<ImportRowResult> results = new ArrayList<>();
+    private final int maxResults;
+    private final boolean errorsOnly;
+    private long processed;
+    private long omitted;
+    
+    public BulkImportReport(int maxResults, boolean errorsOnly) {
+        this.maxResults = maxResults;
+        this.errorsOnly = errorsOnly;
+        for (ImportRowResult.Status status : ImportRowResult.Status.values()) {
+            counts.put(status, 0L);
+        }
+    }
+    
+    public void add(ImportRowResult result) {
+        processed++;
+        counts.merge(result.status(), 1L, Long::sum);
+        boolean keep = !errorsOnly || result.status() == ImportRowResult.Status.INVALID
+                || result.status() == ImportRowResult.Status.FAILED;
+        if (keep && results.size() < maxResults) {
+            results.add(result);
+        } else if (keep) {
+            omitted++;
+        }
+    }
+    
+    public long getProcessed() {
+        return processed;
+    }
+    
+    public long getCount(ImportRowResult.Status status) {
+        return counts.get(status);
+    }
+    
+    // Invalid rows are reported before their chunk is written, so restore input order here
+    public List<ImportRowResult> getResults() {
+        results.sort(Comparator.comparingLong(ImportRowResult::row));
+        return results;
+    }
+    
+    public long getOmitted() {
+        return omitted;
+    }
+}
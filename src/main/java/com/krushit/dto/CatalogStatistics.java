@@ -0,0 +1,70 @@
+package com.krushit.dto;
+
+import com.krushit.entity.Country;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Immutable snapshot of the per-continent aggregates; every read is served from here without touching the database
+public final class CatalogStatistics {
+
+    private final SortedMap<String, ContinentStatistics> byContinent;
+    private final ContinentStatistics total;
+    private final List<String> continents;
+    private final List<Object[]> countsByContinent;
+
+    private CatalogStatistics(SortedMap<String, ContinentStatistics> byContinent, ContinentStatistics total) {
+        this.byContinent = Collections.unmodifiableSortedMap(byContinent);
+        this.total = total;
+        this.continents = List.copyOf(byContinent.keySet());
+        this.countsByContinent = byContinent.values().stream()
+                .sorted(Comparator.comparingLong(ContinentStatistics::countries).reversed()
+                        .thenComparing(ContinentStatistics::continent))
+                .map(statistics -> new Object[] {statistics.continent(), statistics.countries()})
+                .toList();
+    }
+
+    public static CatalogStatistics of(Iterable<ContinentStatistics> continents) {
+        SortedMap<String, ContinentStatistics> sorted = new TreeMap<>();
+        ContinentStatistics total = ContinentStatistics.empty(null);
+        for (ContinentStatistics statistics : continents) {
+            if (!statistics.isEmpty()) {
+                sorted.put(statistics.continent(), statistics);
+                total = total.plus(statistics);
+            }
+        }
+        return new CatalogStatistics(sorted, total);
+    }
+
+    // The same totals the GROUP BY produces, for callers that already hold the whole catalog
+    public static CatalogStatistics ofCountries(Iterable<Country> countries) {
+        Map<String, ContinentStatistics> continents = new HashMap<>();
+        for (Country country : countries) {
+            continents.merge(country.getContinent(), ContinentStatistics.empty(country.getContinent()).plus(country),
+                    (existing, added) -> existing.plus(country));
+        }
+        return of(continents.values());
+    }
+
+    public Map<String, ContinentStatistics> getByContinent() {
+        return byContinent;
+    }
+
+    public ContinentStatistics getTotal() {
+        return total;
+    }
+
+    public List<String> getContinents() {
+        return continents;
+    }
+
+    // Same shape as CountryRepository.countCountriesByContinent(): [continent, count] by descending count
+    public List<Object[]> getCountsByContinent() {
+        return countsByContinent;
+    }
+}
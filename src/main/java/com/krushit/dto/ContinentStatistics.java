@@ -0,0 +1,52 @@
+package com.krushit.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.krushit.entity.Country;
+
+// Running totals for one continent (or the whole catalog); averages and density are derived on read
+public record ContinentStatistics(String continent, long countries, long populatedCountries, long totalPopulation,
+                                  long measuredCountries, double totalArea) {
+
+    public static ContinentStatistics empty(String continent) {
+        return new ContinentStatistics(continent, 0, 0, 0, 0, 0.0);
+    }
+
+    public ContinentStatistics plus(Country country) {
+        return adjust(country, 1);
+    }
+
+    public ContinentStatistics minus(Country country) {
+        return adjust(country, -1);
+    }
+
+    private ContinentStatistics adjust(Country country, int sign) {
+        Long population = country.getPopulation();
+        Double area = country.getArea();
+        return new ContinentStatistics(continent,
+                countries + sign,
+                populatedCountries + (population != null ? sign : 0),
+                totalPopulation + (population != null ? sign * population : 0),
+                measuredCountries + (area != null ? sign : 0),
+                totalArea + (area != null ? sign * area : 0.0));
+    }
+
+    public ContinentStatistics plus(ContinentStatistics other) {
+        return new ContinentStatistics(continent, countries + other.countries,
+                populatedCountries + other.populatedCountries, totalPopulation + other.totalPopulation,
+                measuredCountries + other.measuredCountries, totalArea + other.totalArea);
+    }
+
+    public double getAveragePopulation() {
+        return populatedCountries == 0 ? 0.0 : (double) totalPopulation / populatedCountries;
+    }
+
+    // People per km², over the whole population and area known for this group
+    public double getPopulationDensity() {
+        return totalArea <= 0.0 ? 0.0 : totalPopulation / totalArea;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return countries <= 0;
+    }
+}
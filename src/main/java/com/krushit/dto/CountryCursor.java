@@ -0,0 +1,36 @@
+package com.krushit.dto;
+
+import com.krushit.entity.Country;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Keyset position on (continent, name, id), exchanged with clients as an opaque token
+public record CountryCursor(String continent, String name, Long id) {
+
+    private static final char SEPARATOR = '\u001F';
+
+    public static CountryCursor of(Country country) {
+        return new CountryCursor(country.getContinent(), country.getName(), country.getId());
+    }
+
+    public String encode() {
+        String raw = continent + SEPARATOR + name + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CountryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new CountryCursor(raw.substring(0, first), raw.substring(first + 1, last),
+                    Long.valueOf(raw.substring(last + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
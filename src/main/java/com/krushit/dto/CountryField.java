@@ -0,0 +1,75 @@
+package com.krushit.dto;
+
+import com.krushit.entity.Country;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+// Country columns a list endpoint can return, in the order they appear in the full representation
+public enum CountryField {
+    ID("id", Country::getId),
+    NAME("name", Country::getName),
+    CONTINENT("continent", Country::getContinent),
+    POPULATION("population", Country::getPopulation),
+    CAPITAL("capital", Country::getCapital),
+    AREA("area", Country::getArea),
+    CURRENCY("currency", Country::getCurrency),
+    LANGUAGE("language", Country::getLanguage);
+
+    public static final List<CountryField> ALL = List.of(values());
+
+    private final String property;
+    private final Function<Country, Object> accessor;
+
+    CountryField(String property, Function<Country, Object> accessor) {
+        this.property = property;
+        this.accessor = accessor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object valueOf(Country country) {
+        return accessor.apply(country);
+    }
+
+    public static Object[] valuesOf(Country country, List<CountryField> fields) {
+        Object[] row = new Object[fields.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = fields.get(i).valueOf(country);
+        }
+        return row;
+    }
+
+    // Parses a comma-separated sparse fieldset such as "id,name"; null or blank selects every field
+    public static List<CountryField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        List<CountryField> selected = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            String property = name.strip();
+            if (property.isEmpty()) {
+                continue;
+            }
+            CountryField field = fromProperty(property);
+            if (!selected.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected.isEmpty() ? ALL : List.copyOf(selected);
+    }
+
+    private static CountryField fromProperty(String property) {
+        for (CountryField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + property + "'; expected one of "
+                + ALL.stream().map(CountryField::getProperty).toList().toString().toLowerCase(Locale.ROOT));
+    }
+}
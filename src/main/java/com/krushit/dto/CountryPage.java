@@ -0,0 +1,8 @@
+package com.krushit.dto;
+
+import com.krushit.entity.Country;
+
+import java.util.List;
+
+public record CountryPage(List<Country> countries, String nextCursor) {
+}
@@ -0,0 +1,19 @@
+package com.krushit.dto;
+
+// Filter for the query endpoint; every criterion is optional and the ones given are combined with AND
+public record CountryQuery(String name, String continent, String currency, String language,
+                           Long minPopulation, Long maxPopulation, Double minArea, Double maxArea) {
+
+    public static CountryQuery unfiltered() {
+        return new CountryQuery(null, null, null, null, null, null, null, null);
+    }
+
+    public void validate() {
+        if (minPopulation != null && maxPopulation != null && minPopulation > maxPopulation) {
+            throw new IllegalArgumentException("minPopulation must not be greater than maxPopulation");
+        }
+        if (minArea != null && maxArea != null && minArea > maxArea) {
+            throw new IllegalArgumentException("minArea must not be greater than maxArea");
+        }
+    }
+}
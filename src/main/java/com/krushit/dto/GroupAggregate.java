@@ -0,0 +1,11 @@
+package com.krushit.dto;
+
+import java.util.Comparator;
+
+// One group of a group-by; average, min and max are null when no country in the group has a value
+public record GroupAggregate(String key, long countries, long measuredCountries, double sum, Double average,
+                             Double min, Double max) {
+
+    public static final Comparator<GroupAggregate> BY_KEY =
+            Comparator.comparing(GroupAggregate::key, Comparator.nullsLast(Comparator.naturalOrder()));
+}
@@ -0,0 +1,27 @@
+package com.krushit.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportRowResult(long row, String name, Status status, Long id, String message) {
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID, FAILED
+    }
+
+    public static ImportRowResult created(long row, String name, Long id) {
+        return new ImportRowResult(row, name, Status.CREATED, id, null);
+    }
+
+    public static ImportRowResult duplicate(long row, String name) {
+        return new ImportRowResult(row, name, Status.DUPLICATE, null, "Country with name '" + name + "' already exists");
+    }
+
+    public static ImportRowResult invalid(long row, String name, String message) {
+        return new ImportRowResult(row, name, Status.INVALID, null, message);
+    }
+
+    public static ImportRowResult failed(long row, String name, String message) {
+        return new ImportRowResult(row, name, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.krushit.dto;
+
+import com.krushit.entity.Country;
+
+// A country with the value it was ranked by: population, area in km² or people per km²
+public record RankedCountry(Country country, double value) {
+}
@@ -1,15 +1,30 @@
 package com.krushit.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
 @Entity
-@Table(name = "countries")
+@Table(name = "countries", indexes = {
+    @Index(name = "idx_countries_continent_name", columnList = "continent, name"),
+    @Index(name = "idx_countries_population", columnList = "population"),
+    @Index(name = "idx_countries_area", columnList = "area"),
+    @Index(name = "idx_countries_currency", columnList = "currency"),
+    @Index(name = "idx_countries_language", columnList = "language")
+})
 public class Country {
     
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // Table-based ids are portable across MySQL and H2 and, unlike IDENTITY, let Hibernate batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "country_id_generator")
+    @TableGenerator(name = "country_id_generator", table = "id_generator", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "countries", allocationSize = Country.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Country name is required")
@@ -37,6 +52,16 @@ public class Country {
     @Column(name = "language")
     private String language;
     
+    // Bumped by Hibernate on every update; exposed to clients as the ETag rather than in the body
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private long version;
+    
+    @JsonIgnore
+    @Column(name = "last_modified")
+    private Instant lastModified;
+    
     // Default constructor
     public Country() {}
     
@@ -57,6 +82,49 @@ public class Country {
         this.language = language;
     }
     
+    // Copy constructor
+    public Country(Country other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.continent = other.continent;
+        this.population = other.population;
+        this.capital = other.capital;
+        this.area = other.area;
+        this.currency = other.currency;
+        this.language = other.language;
+        this.version = other.version;
+        this.lastModified = other.lastModified;
+    }
+
+    // The row as CountryRepository.updateIfVersion leaves it: the new details, the next version and modifiedAt
+    public Country updatedWith(Country details, Instant modifiedAt) {
+        Country updated = new Country(this);
+        updated.name = details.name;
+        updated.continent = details.continent;
+        updated.population = details.population;
+        updated.capital = details.capital;
+        updated.area = details.area;
+        updated.currency = details.currency;
+        updated.language = details.language;
+        updated.version = version + 1;
+        updated.lastModified = modifiedAt;
+        return updated;
+    }
+
+    // This state of this row, for ETags: the id tells a re-created country from the deleted one, which
+    // also started at version 0, and the modification time adds a check on the version
+    public String revision() {
+        long modified = lastModified == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, lastModified);
+        return id + "-" + version + "-" + Long.toString(modified, 36);
+    }
+
+    // Microseconds, as stored, so the saved entity has the revision later reads of the row will have
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -122,6 +190,14 @@ public class Country {
         this.language = language;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public Instant getLastModified() {
+        return lastModified;
+    }
+    
     @Override
     public String toString() {
         return "Country{" +
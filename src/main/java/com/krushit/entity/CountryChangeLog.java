@@ -0,0 +1,115 @@
+package com.krushit.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "country_change_log", indexes = @Index(name = "idx_country_change_log_created_at", columnList = "created_at"))
+public class CountryChangeLog {
+    
+    // Identity keeps ids increasing in insert order, which the pollers rely on
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "country_id", nullable = false)
+    private Long countryId;
+    
+    @Column(name = "change_type", nullable = false, length = 16)
+    private String changeType;
+    
+    @Column(name = "old_name")
+    private String oldName;
+    
+    @Column(name = "old_continent")
+    private String oldContinent;
+    
+    @Column(name = "new_name")
+    private String newName;
+    
+    @Column(name = "new_continent")
+    private String newContinent;
+    
+    @Column(name = "instance_id", nullable = false, length = 64)
+    private String instanceId;
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    
+    // Default constructor
+    public CountryChangeLog() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getCountryId() {
+        return countryId;
+    }
+    
+    public void setCountryId(Long countryId) {
+        this.countryId = countryId;
+    }
+    
+    public String getChangeType() {
+        return changeType;
+    }
+    
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+    
+    public String getOldName() {
+        return oldName;
+    }
+    
+    public void setOldName(String oldName) {
+        this.oldName = oldName;
+    }
+    
+    public String getOldContinent() {
+        return oldContinent;
+    }
+    
+    public void setOldContinent(String oldContinent) {
+        this.oldContinent = oldContinent;
+    }
+    
+    public String getNewName() {
+        return newName;
+    }
+    
+    public void setNewName(String newName) {
+        this.newName = newName;
+    }
+    
+    public String getNewContinent() {
+        return newContinent;
+    }
+    
+    public void setNewContinent(String newContinent) {
+        this.newContinent = newContinent;
+    }
+    
+    public String getInstanceId() {
+        return instanceId;
+    }
+    
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
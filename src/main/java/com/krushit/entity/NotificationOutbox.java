@@ -0,0 +1,128 @@
+package com.krushit.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "notification_outbox", indexes = @Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at"))
+public class NotificationOutbox {
+    
+    public enum Status {
+        PENDING, DISPATCHED, FAILED
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "action", nullable = false, length = 64)
+    private String action;
+    
+    @Column(name = "details", nullable = false)
+    private String details;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+    
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+    
+    @Column(name = "dispatched_at")
+    private Instant dispatchedAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    // Default constructor
+    public NotificationOutbox() {}
+    
+    // Constructor for a new pending event
+    public NotificationOutbox(String action, String details, Instant createdAt) {
+        this.action = action;
+        this.details = details;
+        this.status = Status.PENDING;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getAction() {
+        return action;
+    }
+    
+    public void setAction(String action) {
+        this.action = action;
+    }
+    
+    public String getDetails() {
+        return details;
+    }
+    
+    public void setDetails(String details) {
+        this.details = details;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+    
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+    
+    public Instant getDispatchedAt() {
+        return dispatchedAt;
+    }
+    
+    public void setDispatchedAt(Instant dispatchedAt) {
+        this.dispatchedAt = dispatchedAt;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
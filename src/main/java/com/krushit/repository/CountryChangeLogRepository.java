@@ -0,0 +1,30 @@
+package com.krushit.repository;
+
+import com.krushit.entity.CountryChangeLog;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CountryChangeLogRepository extends JpaRepository<CountryChangeLog, Long> {
+    
+    List<CountryChangeLog> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    List<CountryChangeLog> findByIdInOrderByIdAsc(Collection<Long> ids);
+    
+    @Query("SELECT COALESCE(MAX(l.id), 0) FROM CountryChangeLog l")
+    Long findMaxId();
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CountryChangeLog l WHERE l.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
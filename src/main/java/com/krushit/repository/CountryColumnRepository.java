@@ -0,0 +1,21 @@
+package com.krushit.repository;
+
+import com.krushit.dto.CountryField;
+import com.krushit.entity.Country;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Projections for list views: only the requested columns are selected and rows come back as plain
+ * value arrays in field order, so no entity is hydrated, snapshotted for dirty checking or reflected on.
+ */
+public interface CountryColumnRepository {
+
+    Stream<Object[]> streamColumns(List<CountryField> fields, Specification<Country> specification, Sort sort);
+
+    List<Object[]> findColumns(List<CountryField> fields, Specification<Country> specification, Pageable pageable);
+}
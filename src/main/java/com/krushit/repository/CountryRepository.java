@@ -1,19 +1,41 @@
 package com.krushit.repository;
 
+import com.krushit.dto.ContinentStatistics;
 import com.krushit.entity.Country;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CountryRepository extends JpaRepository<Country, Long> {
+public interface CountryRepository extends JpaRepository<Country, Long>, JpaSpecificationExecutor<Country>,
+        CountryColumnRepository {
     
     Optional<Country> findByName(String name);
-    
+
+    boolean existsByName(String name);
+
+    // Single-statement writes that skip loading the entity; they touch nothing if the row changed since version
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Country c SET c.name = :#{#details.name}, c.continent = :#{#details.continent}, " +
+           "c.population = :#{#details.population}, c.capital = :#{#details.capital}, c.area = :#{#details.area}, " +
+           "c.currency = :#{#details.currency}, c.language = :#{#details.language}, " +
+           "c.version = c.version + 1, c.lastModified = :modifiedAt WHERE c.id = :id AND c.version = :version")
+    int updateIfVersion(@Param("id") Long id, @Param("version") long version, @Param("details") Country details,
+                        @Param("modifiedAt") Instant modifiedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Country c WHERE c.id = :id AND c.version = :version")
+    int deleteIfVersion(@Param("id") Long id, @Param("version") long version);
+
     List<Country> findByContinent(String continent);
     
     List<Country> findByContinentOrderByNameAsc(String continent);
@@ -22,6 +44,14 @@ public interface CountryRepository extends JpaRepository<Country, Long> {
     
     List<Country> findAllByOrderByContinentAscNameAsc();
     
+    List<Country> findAllByOrderByContinentAscNameAscIdAsc(Limit limit);
+    
+    @Query("SELECT c FROM Country c WHERE c.continent > :continent " +
+           "OR (c.continent = :continent AND (c.name > :name OR (c.name = :name AND c.id > :id))) " +
+           "ORDER BY c.continent, c.name, c.id")
+    List<Country> findPageAfter(@Param("continent") String continent, @Param("name") String name,
+                                @Param("id") Long id, Limit limit);
+    
     List<Country> findByNameContainingIgnoreCase(String name);
     
     List<Country> findByContinentContainingIgnoreCase(String continent);
@@ -29,9 +59,17 @@ public interface CountryRepository extends JpaRepository<Country, Long> {
     @Query("SELECT c FROM Country c WHERE c.population > :population ORDER BY c.population DESC")
     List<Country> findCountriesWithPopulationGreaterThan(@Param("population") Long population);
 
+    @Query("SELECT c.name FROM Country c WHERE c.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+    
     @Query("SELECT DISTINCT c.continent FROM Country c ORDER BY c.continent")
     List<String> findAllDistinctContinents();
     
     @Query("SELECT c.continent, COUNT(c) FROM Country c GROUP BY c.continent ORDER BY COUNT(c) DESC")
     List<Object[]> countCountriesByContinent();
+    
+    @Query("SELECT new com.krushit.dto.ContinentStatistics(c.continent, COUNT(c), COUNT(c.population), " +
+           "COALESCE(SUM(c.population), 0), COUNT(c.area), COALESCE(SUM(c.area), 0.0)) " +
+           "FROM Country c GROUP BY c.continent")
+    List<ContinentStatistics> aggregateByContinent();
 } 
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.krushit.repository;
+
+import com.krushit.dto.CountryQuery;
+import com.krushit.entity.Country;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Translates a CountryQuery into one WHERE clause; each predicate is shaped so an index on its column applies
+public final class CountrySpecifications {
+
+    private CountrySpecifications() {
+    }
+
+    public static Specification<Country> matching(CountryQuery query) {
+        return (root, criteria, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(query.name())) {
+                // A plain prefix LIKE can use the unique index on name; MySQL's default collation ignores case
+                predicates.add(builder.like(root.get("name"), escapeLike(query.name().strip()) + "%", '\\'));
+            }
+            if (hasText(query.continent())) {
+                predicates.add(builder.equal(root.get("continent"), query.continent().strip()));
+            }
+            if (hasText(query.currency())) {
+                predicates.add(builder.equal(root.get("currency"), query.currency().strip()));
+            }
+            if (hasText(query.language())) {
+                predicates.add(builder.equal(root.get("language"), query.language().strip()));
+            }
+            if (query.minPopulation() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("population"), query.minPopulation()));
+            }
+            if (query.maxPopulation() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("population"), query.maxPopulation()));
+            }
+            if (query.minArea() != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("area"), query.minArea()));
+            }
+            if (query.maxArea() != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("area"), query.maxArea()));
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
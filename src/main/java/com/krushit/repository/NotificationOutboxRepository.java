@@ -0,0 +1,38 @@
+package com.krushit.repository;
+
+import com.krushit.entity.NotificationOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+    
+    // SKIP LOCKED lets every replica run a dispatcher without two of them claiming the same event
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now ORDER BY o.id")
+    List<NotificationOutbox> claimDue(@Param("now") Instant now, Limit limit);
+    
+    @Query("SELECT MIN(o.createdAt) FROM NotificationOutbox o WHERE o.status = 'PENDING'")
+    Optional<Instant> findOldestPendingCreatedAt();
+    
+    long countByStatus(NotificationOutbox.Status status);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status = 'DISPATCHED' AND o.dispatchedAt < :cutoff")
+    int deleteDispatchedBefore(@Param("cutoff") Instant cutoff);
+}
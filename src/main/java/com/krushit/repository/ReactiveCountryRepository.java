@@ -0,0 +1,93 @@
+package com.krushit.repository;
+
+import com.krushit.dto.CountryCursor;
+import com.krushit.dto.CountryField;
+import com.krushit.entity.Country;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking reads of the countries table over R2DBC, for the reactive API. Rows are fetched in
+ * batches as the subscriber asks for them, so a slow client holds back the query instead of making it
+ * buffer the table. Writes stay with JPA, which owns ids, versions, the change log and the outbox.
+ */
+public class ReactiveCountryRepository implements DisposableBean {
+
+    private static final int FETCH_SIZE = 500;
+    private static final String EXPORT_ORDER = " ORDER BY continent, name, id";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCountryRepository(ConnectionPool pool) {
+        this.pool = pool;
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    public Flux<Object[]> streamColumns(List<CountryField> fields) {
+        return databaseClient.sql("SELECT " + columns(fields) + " FROM countries" + EXPORT_ORDER)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(row -> values(row, fields))
+                .all();
+    }
+
+    public Flux<Object[]> findColumnsWithPopulationGreaterThan(List<CountryField> fields, long population) {
+        return databaseClient.sql("SELECT " + columns(fields) + " FROM countries WHERE population > :population ORDER BY population DESC")
+                .bind("population", population)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(row -> values(row, fields))
+                .all();
+    }
+
+    // Same keyset as CountryRepository.findPageAfter
+    public Flux<Country> findPage(CountryCursor after, int limit) {
+        String columns = columns(CountryField.ALL);
+        if (after == null) {
+            return databaseClient.sql("SELECT " + columns + " FROM countries" + EXPORT_ORDER + " LIMIT :limit")
+                    .bind("limit", limit)
+                    .map(ReactiveCountryRepository::country)
+                    .all();
+        }
+        return databaseClient.sql("SELECT " + columns + " FROM countries WHERE continent > :continent " +
+                        "OR (continent = :continent AND (name > :name OR (name = :name AND id > :id)))" +
+                        EXPORT_ORDER + " LIMIT :limit")
+                .bind("continent", after.continent())
+                .bind("name", after.name())
+                .bind("id", after.id())
+                .bind("limit", limit)
+                .map(ReactiveCountryRepository::country)
+                .all();
+    }
+
+    // Column names are the field properties, which come from the enum rather than the request
+    private static String columns(List<CountryField> fields) {
+        return fields.stream().map(CountryField::getProperty).collect(Collectors.joining(", "));
+    }
+
+    private static Object[] values(Readable row, List<CountryField> fields) {
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.get(i);
+        }
+        return values;
+    }
+
+    private static Country country(Readable row) {
+        Country country = new Country(row.get("name", String.class), row.get("continent", String.class),
+                row.get("population", Long.class), row.get("capital", String.class), row.get("area", Double.class),
+                row.get("currency", String.class), row.get("language", String.class));
+        country.setId(row.get("id", Long.class));
+        return country;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,51 @@
+package com.krushit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.lambda.LambdaAsyncClient;
+import software.amazon.awssdk.services.lambda.model.InvokeRequest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Invokes the Lambda over the SDK's Netty client, so a batch of invocations shares its event loop instead of a thread each
+@Component
+@ConditionalOnProperty(name = "globalvault.notifications.publisher", havingValue = "lambda-async", matchIfMissing = true)
+public class AsyncLambdaNotificationPublisher implements NotificationPublisher {
+    
+    private static final Logger log = LoggerFactory.getLogger(AsyncLambdaNotificationPublisher.class);
+    
+    @Autowired
+    private LambdaAsyncClient lambdaAsyncClient;
+    
+    @Value("${aws.lambda.function.name}")
+    private String lambdaFunctionName;
+    
+    @Override
+    public void publish(NotificationEvent event) throws Exception {
+        try {
+            publishAsync(event).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> publishAsync(NotificationEvent event) {
+        InvokeRequest request = InvokeRequest.builder()
+                .functionName(lambdaFunctionName)
+                .payload(SdkBytes.fromUtf8String(event.toPayload()))
+                .build();
+        return lambdaAsyncClient.invoke(request).thenAccept(response -> {
+            if (response.functionError() != null) {
+                throw new IllegalStateException("Lambda function error: " + response.functionError());
+            }
+            log.debug("Lambda invoked for outbox event {}: {}", event.id(), response.statusCode());
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.krushit.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Version of the catalog as a whole, bumped after every committed change including those replayed from
+ * other instances. Catalog-wide responses use it as their validator, so an unchanged catalog is answered
+ * with a 304 before any query runs. The tag starts with a per-process epoch, so counters of different
+ * instances or restarts never produce the same tag.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private long counter;
+    private Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(CountryChangeEvent event) {
+        bump();
+    }
+
+    public synchronized void bump() {
+        counter++;
+        lastModified = Instant.now();
+    }
+
+    public synchronized Stamp current() {
+        return new Stamp(epoch + "-" + counter, lastModified);
+    }
+
+    public record Stamp(String tag, Instant lastModified) {
+    }
+}
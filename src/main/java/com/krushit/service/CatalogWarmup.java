@@ -0,0 +1,72 @@
+package com.krushit.service;
+
+import com.krushit.config.DataSourceRoute;
+import com.krushit.dto.CatalogStatistics;
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the statistics snapshot, the search index and the analytics columns and fills the country caches
+ * from a single read of the catalog, instead of a GROUP BY, two full scans and a cold cache. Runs after the invalidation bus
+ * has taken its starting point, so a change committed during the read is either in it or replayed later.
+ */
+@Component
+public class CatalogWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private CountrySearchIndex searchIndex;
+
+    @Autowired
+    private CountryStatisticsService statisticsService;
+
+    @Autowired
+    private CountryAnalytics analytics;
+
+    @Autowired
+    private CountryCache countryCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        long startedAt = System.nanoTime();
+        String tag = catalogVersion.current().tag();
+        AtomicReference<List<Country>> catalog = new AtomicReference<>();
+        // Seeding just wrote to the primary; a replica may not have it yet
+        try (DataSourceRoute.Pin primary = DataSourceRoute.pinToPrimary()) {
+            // All rebuilds start tracking concurrent changes before the shared read happens
+            statisticsService.rebuild(() -> {
+                searchIndex.rebuild(() -> {
+                    analytics.rebuild(() -> {
+                        catalog.set(countryRepository.findAllByOrderByContinentAscNameAsc());
+                        return catalog.get();
+                    });
+                    return catalog.get();
+                });
+                return CatalogStatistics.ofCountries(catalog.get());
+            });
+        }
+        countryCache.warm(catalog.get());
+        if (!tag.equals(catalogVersion.current().tag())) {
+            // A change landed while the caches were filled; its eviction may have run before the fill
+            countryCache.invalidateAll();
+        }
+        log.info("Warmed statistics, search index, analytics and caches with {} countries in {} ms",
+                catalog.get().size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+}
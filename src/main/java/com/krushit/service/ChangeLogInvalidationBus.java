@@ -0,0 +1,168 @@
+package com.krushit.service;
+
+import com.krushit.config.DataSourceRoute;
+import com.krushit.entity.Country;
+import com.krushit.entity.CountryChangeLog;
+import com.krushit.repository.CountryChangeLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Invalidation bus backed by the country_change_log table. Every mutation writes a row in the same
+ * transaction as the country change and each instance polls for rows written by the others.
+ */
+@Component
+@ConditionalOnProperty(name = "globalvault.cache.invalidation.mode", havingValue = "changelog", matchIfMissing = true)
+public class ChangeLogInvalidationBus implements CountryInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogInvalidationBus.class);
+
+    private static final String INSERT_SQL = "INSERT INTO country_change_log " +
+            "(country_id, change_type, old_name, old_continent, new_name, new_continent, instance_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    private CountryChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${globalvault.cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${globalvault.cache.invalidation.gap-timeout:30s}")
+    private Duration gapTimeout;
+
+    @Value("${globalvault.cache.invalidation.retention:1h}")
+    private Duration retention;
+
+    // A lock rather than synchronized, so a poll waiting on JDBC does not pin a virtual thread's carrier
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    private volatile boolean started;
+
+    private long lastSeenId;
+
+    // Ids skipped by the poller; a transaction that took them may still commit, so they are re-checked for a while
+    private final Map<Long, Instant> gaps = new HashMap<>();
+
+    @Override
+    public void publish(CountryChangeEvent event) {
+        publishAll(List.of(event));
+    }
+
+    // Plain JDBC so that bulk writes insert their log rows as one batch despite the identity key
+    @Override
+    public void publishAll(List<CountryChangeEvent> events) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, batchSize, (statement, event) -> {
+            statement.setLong(1, event.countryId());
+            statement.setString(2, event.type().name());
+            statement.setString(3, event.before() != null ? event.before().getName() : null);
+            statement.setString(4, event.before() != null ? event.before().getContinent() : null);
+            statement.setString(5, event.after() != null ? event.after().getName() : null);
+            statement.setString(6, event.after() != null ? event.after().getContinent() : null);
+            statement.setString(7, instanceId);
+            statement.setTimestamp(8, now);
+        });
+    }
+
+    // Before CatalogWarmup reads the catalog, so nothing committed in between is skipped
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        pollLock.lock();
+        try (DataSourceRoute.Pin primary = DataSourceRoute.pinToPrimary()) {
+            // Caches are filled after this point, so only changes made from now on are of interest
+            lastSeenId = changeLogRepository.findMaxId();
+            started = true;
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${globalvault.cache.invalidation.poll-interval:1s}")
+    public void poll() {
+        if (!started) {
+            return;
+        }
+        pollLock.lock();
+        // A lagging replica would hand out log ids late and make them look like abandoned gaps
+        try (DataSourceRoute.Pin primary = DataSourceRoute.pinToPrimary()) {
+            Instant now = Instant.now();
+            gaps.values().removeIf(deadline -> deadline.isBefore(now));
+
+            List<CountryChangeLog> entries = new ArrayList<>();
+            if (!gaps.isEmpty()) {
+                entries.addAll(changeLogRepository.findByIdInOrderByIdAsc(gaps.keySet()));
+            }
+            List<CountryChangeLog> fresh = changeLogRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(batchSize));
+            for (CountryChangeLog entry : fresh) {
+                // A jump larger than a batch is an id range that was never used, not a transaction in flight
+                if (entry.getId() - lastSeenId <= batchSize) {
+                    for (long missing = lastSeenId + 1; missing < entry.getId(); missing++) {
+                        gaps.put(missing, now.plus(gapTimeout));
+                    }
+                }
+                lastSeenId = entry.getId();
+            }
+            entries.addAll(fresh);
+
+            for (CountryChangeLog entry : entries) {
+                gaps.remove(entry.getId());
+                if (!instanceId.equals(entry.getInstanceId())) {
+                    eventPublisher.publishEvent(toEvent(entry));
+                }
+            }
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${globalvault.cache.invalidation.purge-interval:10m}")
+    public void purge() {
+        int purged = changeLogRepository.deleteOlderThan(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.debug("Purged {} country change log entries", purged);
+        }
+    }
+
+    private static CountryChangeEvent toEvent(CountryChangeLog entry) {
+        Country before = entry.getOldName() == null ? null : reference(entry.getCountryId(), entry.getOldName(), entry.getOldContinent());
+        Country after = entry.getNewName() == null ? null : reference(entry.getCountryId(), entry.getNewName(), entry.getNewContinent());
+        return CountryChangeEvent.remote(CountryChangeEvent.Type.valueOf(entry.getChangeType()), entry.getCountryId(), before, after);
+    }
+
+    private static Country reference(Long id, String name, String continent) {
+        Country country = new Country(name, continent);
+        country.setId(id);
+        return country;
+    }
+}
@@ -0,0 +1,508 @@
+package com.krushit.service;
+
+import com.krushit.dto.GroupAggregate;
+import com.krushit.dto.RankedCountry;
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar copy of the catalog for rankings, percentiles and group-bys that never reach the database.
+ * Population and area live in primitive arrays, and continent, currency and language are dictionary
+ * codes. Each metric has a sorted index, so range queries and percentiles are a binary search and top-N
+ * reads the index from one end. Built once at startup (see CatalogWarmup) and then kept current from committed
+ * change events: a change moves one row in each index instead of re-sorting. Group-bys over at least
+ * parallel-threshold rows are split across the common fork-join pool.
+ */
+@Component
+public class CountryAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryAnalytics.class);
+
+    private static final long NO_POPULATION = Long.MIN_VALUE;
+    private static final int NO_CODE = 0;
+    private static final int PARALLEL_CHUNKS = 64;
+
+    public enum Metric {
+        POPULATION, AREA, DENSITY;
+
+        public static Metric parse(String value) {
+            for (Metric metric : values()) {
+                if (metric.name().equalsIgnoreCase(value == null ? "" : value.strip())) {
+                    return metric;
+                }
+            }
+            throw new IllegalArgumentException("Unknown metric '" + value + "'; use population, area or density");
+        }
+    }
+
+    public enum Dimension {
+        CONTINENT, CURRENCY, LANGUAGE;
+
+        public static Dimension parse(String value) {
+            for (Dimension dimension : values()) {
+                if (dimension.name().equalsIgnoreCase(value == null ? "" : value.strip())) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("Unknown group '" + value + "'; use continent, currency or language");
+        }
+    }
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Value("${globalvault.analytics.parallel-threshold:100000}")
+    private int parallelThreshold;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // One slot per country; a deleted country's slot goes to the next insert
+    private Country[] rows = new Country[0];
+    private long[] ids = new long[0];
+    private long[] population = new long[0];
+    private double[] area = new double[0];
+    private final int[][] codes = new int[Dimension.values().length][0];
+    private final Dictionary[] dictionaries = {new Dictionary(), new Dictionary(), new Dictionary()};
+    private int slots;
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+
+    // Slots with a value for the metric, ascending by value then id
+    private final SortedIndex[] indexes = {new SortedIndex(Metric.POPULATION), new SortedIndex(Metric.AREA),
+            new SortedIndex(Metric.DENSITY)};
+
+    private List<CountryChangeEvent> pendingDuringRebuild;
+    private volatile boolean built;
+
+    // Highest values first, like ORDER BY population DESC
+    public List<Country> populationGreaterThan(long threshold) {
+        return read(() -> {
+            SortedIndex index = indexes[Metric.POPULATION.ordinal()];
+            int from = index.firstAbove(threshold);
+            List<Country> result = new ArrayList<>(index.size - from);
+            for (int i = index.size - 1; i >= from; i--) {
+                result.add(rows[index.slots[i]]);
+            }
+            return result;
+        });
+    }
+
+    public List<RankedCountry> top(Metric metric, int limit, boolean ascending) {
+        return read(() -> {
+            SortedIndex index = indexes[metric.ordinal()];
+            int count = Math.min(limit, index.size);
+            List<RankedCountry> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int slot = index.slots[ascending ? i : index.size - 1 - i];
+                result.add(new RankedCountry(rows[slot], value(metric, slot)));
+            }
+            return result;
+        });
+    }
+
+    // Nearest-rank percentiles of the countries that have a value for the metric; empty if none do
+    public Map<Double, Double> percentiles(Metric metric, Collection<Double> percentiles) {
+        for (double percentile : percentiles) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentiles must be between 0 and 100");
+            }
+        }
+        return read(() -> {
+            SortedIndex index = indexes[metric.ordinal()];
+            Map<Double, Double> result = new LinkedHashMap<>();
+            if (index.size == 0) {
+                return result;
+            }
+            for (double percentile : percentiles) {
+                int rank = Math.max(1, (int) Math.ceil(percentile / 100 * index.size));
+                result.put(percentile, value(metric, index.slots[rank - 1]));
+            }
+            return result;
+        });
+    }
+
+    public int count(Metric metric) {
+        return read(() -> indexes[metric.ordinal()].size);
+    }
+
+    // Groups without a value for the dimension are reported under a null key
+    public List<GroupAggregate> groupBy(Dimension dimension, Metric metric) {
+        return read(() -> {
+            int[] keys = codes[dimension.ordinal()];
+            int groups = dictionaries[dimension.ordinal()].size();
+            Accumulator total;
+            if (slots >= parallelThreshold) {
+                int chunk = Math.max(1, (slots + PARALLEL_CHUNKS - 1) / PARALLEL_CHUNKS);
+                total = IntStream.range(0, (slots + chunk - 1) / chunk).parallel()
+                        .mapToObj(part -> accumulate(keys, metric, groups, part * chunk, Math.min(slots, (part + 1) * chunk)))
+                        .reduce(Accumulator::merge)
+                        .orElseGet(() -> new Accumulator(groups));
+            } else {
+                total = accumulate(keys, metric, groups, 0, slots);
+            }
+            List<GroupAggregate> result = new ArrayList<>();
+            for (int code = 0; code < groups; code++) {
+                if (total.count[code] > 0) {
+                    long measured = total.measured[code];
+                    result.add(new GroupAggregate(dictionaries[dimension.ordinal()].value(code), total.count[code], measured,
+                            total.sum[code], measured == 0 ? null : total.sum[code] / measured,
+                            measured == 0 ? null : total.min[code], measured == 0 ? null : total.max[code]));
+                }
+            }
+            result.sort(GroupAggregate.BY_KEY);
+            return result;
+        });
+    }
+
+    private Accumulator accumulate(int[] keys, Metric metric, int groups, int from, int to) {
+        Accumulator accumulator = new Accumulator(groups);
+        for (int slot = from; slot < to; slot++) {
+            if (rows[slot] == null) {
+                continue;
+            }
+            int code = keys[slot];
+            accumulator.count[code]++;
+            if (present(metric, slot)) {
+                double value = value(metric, slot);
+                accumulator.measured[code]++;
+                accumulator.sum[code] += value;
+                accumulator.min[code] = Math.min(accumulator.min[code], value);
+                accumulator.max[code] = Math.max(accumulator.max[code], value);
+            }
+        }
+        return accumulator;
+    }
+
+    public void rebuild() {
+        rebuild(countryRepository::findAll);
+    }
+
+    // Changes committed while the loader runs are replayed on top of what it returns
+    public void rebuild(Supplier<List<Country>> loader) {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<Country> countries = loader.get();
+            lock.writeLock().lock();
+            try {
+                clear(countries.size());
+                countries.forEach(country -> load(new Country(country)));
+                for (SortedIndex index : indexes) {
+                    index.sort();
+                }
+                pendingDuringRebuild.forEach(this::apply);
+                pendingDuringRebuild = null;
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Loaded {} countries into the analytics columns", countries.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(CountryChangeEvent event) {
+        CountryChangeEvent change = event;
+        if (event.remote() && event.type() != CountryChangeEvent.Type.DELETED) {
+            // Remote events only carry id, name and continent; the row itself is already committed
+            Country current = countryRepository.findById(event.countryId()).map(Country::new).orElse(null);
+            change = CountryChangeEvent.remote(event.type(), event.countryId(), event.before(), current);
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+            apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T read(Supplier<T> query) {
+        if (!built) {
+            rebuild();
+        }
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Event payloads are private copies, so they can be stored as they are
+    private void apply(CountryChangeEvent event) {
+        remove(event.countryId());
+        if (event.after() != null && event.after().getId() != null) {
+            int slot = load(event.after());
+            for (SortedIndex index : indexes) {
+                index.insert(slot);
+            }
+        }
+    }
+
+    private void clear(int capacity) {
+        rows = new Country[capacity];
+        ids = new long[capacity];
+        population = new long[capacity];
+        area = new double[capacity];
+        for (int d = 0; d < codes.length; d++) {
+            codes[d] = new int[capacity];
+            dictionaries[d] = new Dictionary();
+        }
+        slots = 0;
+        slotById.clear();
+        freeCount = 0;
+        for (SortedIndex index : indexes) {
+            index.clear(capacity);
+        }
+    }
+
+    // Writes the columns of one row; the caller puts the slot into the indexes
+    private int load(Country country) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slots == rows.length) {
+                grow(Math.max(16, slots * 2));
+            }
+            slot = slots++;
+        }
+        rows[slot] = country;
+        ids[slot] = country.getId();
+        population[slot] = country.getPopulation() == null ? NO_POPULATION : country.getPopulation();
+        area[slot] = country.getArea() == null ? Double.NaN : country.getArea();
+        codes[Dimension.CONTINENT.ordinal()][slot] = dictionaries[Dimension.CONTINENT.ordinal()].code(country.getContinent());
+        codes[Dimension.CURRENCY.ordinal()][slot] = dictionaries[Dimension.CURRENCY.ordinal()].code(country.getCurrency());
+        codes[Dimension.LANGUAGE.ordinal()][slot] = dictionaries[Dimension.LANGUAGE.ordinal()].code(country.getLanguage());
+        slotById.put(country.getId(), slot);
+        return slot;
+    }
+
+    private void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        // Looked up by the values still in the columns, so before those are cleared
+        for (SortedIndex index : indexes) {
+            index.remove(slot);
+        }
+        rows[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeCount * 2));
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void grow(int capacity) {
+        rows = Arrays.copyOf(rows, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        population = Arrays.copyOf(population, capacity);
+        area = Arrays.copyOf(area, capacity);
+        for (int d = 0; d < codes.length; d++) {
+            codes[d] = Arrays.copyOf(codes[d], capacity);
+        }
+    }
+
+    private boolean present(Metric metric, int slot) {
+        return switch (metric) {
+            case POPULATION -> population[slot] != NO_POPULATION;
+            case AREA -> !Double.isNaN(area[slot]);
+            case DENSITY -> population[slot] != NO_POPULATION && area[slot] > 0;
+        };
+    }
+
+    private double value(Metric metric, int slot) {
+        return switch (metric) {
+            case POPULATION -> population[slot];
+            case AREA -> area[slot];
+            case DENSITY -> population[slot] / area[slot];
+        };
+    }
+
+    private final class SortedIndex {
+
+        private final Metric metric;
+        private int[] slots = new int[0];
+        private int size;
+
+        SortedIndex(Metric metric) {
+            this.metric = metric;
+        }
+
+        void clear(int capacity) {
+            slots = new int[capacity];
+            size = 0;
+        }
+
+        // Used after a bulk load: every present row is appended, then sorted once
+        void sort() {
+            size = 0;
+            for (int slot = 0; slot < CountryAnalytics.this.slots; slot++) {
+                if (rows[slot] != null && present(metric, slot)) {
+                    if (size == slots.length) {
+                        slots = Arrays.copyOf(slots, Math.max(16, size * 2));
+                    }
+                    slots[size++] = slot;
+                }
+            }
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxed[i] = slots[i];
+            }
+            // Parallel on large catalogs; falls back to a sequential sort below a few thousand rows
+            Arrays.parallelSort(boxed, this::compare);
+            for (int i = 0; i < size; i++) {
+                slots[i] = boxed[i];
+            }
+        }
+
+        void insert(int slot) {
+            if (!present(metric, slot)) {
+                return;
+            }
+            int position = -(search(slot) + 1);
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, Math.max(16, size * 2));
+            }
+            System.arraycopy(slots, position, slots, position + 1, size - position);
+            slots[position] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            if (!present(metric, slot)) {
+                return;
+            }
+            int position = search(slot);
+            if (position >= 0) {
+                System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+                size--;
+            }
+        }
+
+        // Position of the first row whose value is above the threshold
+        int firstAbove(double threshold) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (value(metric, slots[middle]) > threshold) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        // Binary search by (value, id); the slot's position, or -(insertion point) - 1
+        private int search(int slot) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int order = compare(slots[middle], slot);
+                if (order < 0) {
+                    low = middle + 1;
+                } else if (order > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private int compare(int a, int b) {
+            int order = Double.compare(value(metric, a), value(metric, b));
+            return order != 0 ? order : Long.compare(ids[a], ids[b]);
+        }
+    }
+
+    // Codes start at 1; 0 stands for a missing value
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>(List.of(""));
+
+        int code(String value) {
+            if (value == null) {
+                return NO_CODE;
+            }
+            return codes.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        String value(int code) {
+            return code == NO_CODE ? null : values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    private static final class Accumulator {
+
+        private final long[] count;
+        private final long[] measured;
+        private final double[] sum;
+        private final double[] min;
+        private final double[] max;
+
+        Accumulator(int groups) {
+            count = new long[groups];
+            measured = new long[groups];
+            sum = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int code = 0; code < count.length; code++) {
+                count[code] += other.count[code];
+                measured[code] += other.measured[code];
+                sum[code] += other.sum[code];
+                min[code] = Math.min(min[code], other.min[code]);
+                max[code] = Math.max(max[code], other.max[code]);
+            }
+            return this;
+        }
+    }
+}
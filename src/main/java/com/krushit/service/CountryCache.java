@@ -0,0 +1,132 @@
+package com.krushit.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.krushit.config.DataSourceRoute;
+import com.krushit.entity.Country;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Read-through cache for the country catalog; entries are evicted after each committed change. Caffeine
+// runs one loader per key, so concurrent misses for the same country already share a single query.
+// Misses are loaded from the primary, so an eviction is never followed by a row the replica has yet to receive.
+// Names and continents compare case-insensitively in the catalog's collation, so they are keyed in lower case:
+// "japan" and "Japan" share one entry, and the eviction of either reaches it.
+@Component
+public class CountryCache {
+
+    private final Cache<Long, Optional<Country>> byId;
+    private final Cache<String, Optional<Country>> byName;
+    private final Cache<String, List<Country>> byContinent;
+
+    public CountryCache(@Value("${globalvault.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${globalvault.cache.ttl:10m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.byId = newCache(maximumSize, ttl);
+        this.byName = newCache(maximumSize, ttl);
+        this.byContinent = newCache(maximumSize, ttl);
+        // Published as cache_gets_total{cache="countries.byId",result="hit|miss"}, cache_size, cache_evictions_total
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "countries.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "countries.byName");
+        CaffeineCacheMetrics.monitor(meterRegistry, byContinent, "countries.byContinent");
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Country> getById(Long id, Supplier<Optional<Country>> loader) {
+        return byId.get(id, key -> fromPrimary(loader));
+    }
+
+    public Optional<Country> getByName(String name, Supplier<Optional<Country>> loader) {
+        return byName.get(key(name), key -> fromPrimary(loader));
+    }
+
+    // The cached row without loading it; may be stale, so callers check its version against the database
+    public Optional<Country> peekById(Long id) {
+        Optional<Country> cached = byId.getIfPresent(id);
+        return cached != null ? cached : Optional.empty();
+    }
+
+    public List<Country> getByContinent(String continent, Supplier<List<Country>> loader) {
+        return byContinent.get(key(continent), key -> List.copyOf(fromPrimary(loader)));
+    }
+
+    private static String key(String nameOrContinent) {
+        return nameOrContinent.toLowerCase(Locale.ROOT);
+    }
+
+    private static <T> T fromPrimary(Supplier<T> loader) {
+        try (DataSourceRoute.Pin primary = DataSourceRoute.pinToPrimary()) {
+            return loader.get();
+        }
+    }
+
+    // Fills the caches from a full read of the catalog, sorted by continent and name like the continent lookup
+    public void warm(List<Country> countries) {
+        Map<String, List<Country>> continents = new LinkedHashMap<>();
+        for (Country country : countries) {
+            byId.put(country.getId(), Optional.of(country));
+            byName.put(key(country.getName()), Optional.of(country));
+            continents.computeIfAbsent(key(country.getContinent()), continent -> new ArrayList<>()).add(country);
+        }
+        continents.forEach((continent, members) -> byContinent.put(continent, List.copyOf(members)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(CountryChangeEvent event) {
+        byId.invalidate(event.countryId());
+        evictCountry(event.before());
+        evictCountry(event.after());
+    }
+
+    private void evictCountry(Country country) {
+        if (country != null) {
+            byName.invalidate(key(country.getName()));
+            byContinent.invalidate(key(country.getContinent()));
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+        byContinent.invalidateAll();
+    }
+
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> statistics = new LinkedHashMap<>();
+        statistics.put("byId", describe(byId));
+        statistics.put("byName", describe(byName));
+        statistics.put("byContinent", describe(byContinent));
+        return statistics;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cache.estimatedSize());
+        description.put("hits", stats.hitCount());
+        description.put("misses", stats.missCount());
+        description.put("evictions", stats.evictionCount());
+        description.put("hitRate", stats.hitRate());
+        return description;
+    }
+}
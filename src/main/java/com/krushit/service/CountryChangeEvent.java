@@ -0,0 +1,28 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+
+// Published for every committed mutation; before is null on create, after is null on delete.
+// Remote events were replayed from another instance and only carry id, name and continent.
+public record CountryChangeEvent(Type type, Long countryId, Country before, Country after, boolean remote) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static CountryChangeEvent created(Country after) {
+        return new CountryChangeEvent(Type.CREATED, after.getId(), null, new Country(after), false);
+    }
+
+    public static CountryChangeEvent updated(Country before, Country after) {
+        return new CountryChangeEvent(Type.UPDATED, after.getId(), before, new Country(after), false);
+    }
+
+    public static CountryChangeEvent deleted(Country before) {
+        return new CountryChangeEvent(Type.DELETED, before.getId(), before, null, false);
+    }
+
+    public static CountryChangeEvent remote(Type type, Long countryId, Country before, Country after) {
+        return new CountryChangeEvent(type, countryId, before, after, true);
+    }
+}
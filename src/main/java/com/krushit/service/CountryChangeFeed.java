@@ -0,0 +1,169 @@
+package com.krushit.service;
+
+import com.krushit.dto.CatalogStatistics;
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Committed country changes as a numbered stream of deltas for clients that would otherwise poll the
+ * catalog. The last buffer-size deltas are kept, so a client that reconnects with the id of the last
+ * delta it saw gets everything after it. A client that fell further behind, or whose id is from an
+ * earlier process, gets a RESET and reloads. Statistics are sent at most once per statistics-interval
+ * however many countries changed in between.
+ */
+@Component
+public class CountryChangeFeed {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED, STATISTICS, RESET
+    }
+
+    // Only the fields for the kind are set: country for creates and updates, statistics for STATISTICS
+    public record Delta(String id, Kind kind, Long countryId, Country country, CatalogStatistics statistics) {
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final Sinks.Many<Delta> deltas;
+    private final Sinks.Empty<Void> closed = Sinks.empty();
+    private final int subscriberBuffer;
+
+    // Sinks reject concurrent emissions, so sequence numbers are taken and emitted under one lock
+    private final ReentrantLock emitLock = new ReentrantLock();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean statisticsChanged = new AtomicBoolean();
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private CountryStatisticsService statisticsService;
+
+    public CountryChangeFeed(@Value("${globalvault.changes.buffer-size:1024}") int bufferSize,
+                             @Value("${globalvault.changes.subscriber-buffer:256}") int subscriberBuffer,
+                             MeterRegistry meterRegistry) {
+        this.deltas = Sinks.many().replay().limit(bufferSize);
+        this.subscriberBuffer = subscriberBuffer;
+        Gauge.builder("globalvault.changes.subscribers", deltas, Sinks.Many::currentSubscriberCount)
+                .description("Clients following the country change stream")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(CountryChangeEvent event) {
+        Country country = event.after();
+        if (event.remote() && event.type() != CountryChangeEvent.Type.DELETED) {
+            // Remote events only carry id, name and continent; the row itself is already committed
+            country = countryRepository.findById(event.countryId()).map(Country::new).orElse(null);
+            if (country == null) {
+                return;
+            }
+        }
+        emit(Kind.valueOf(event.type().name()), event.countryId(), country, null);
+        statisticsChanged.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${globalvault.changes.statistics-interval:1s}")
+    public void publishStatistics() {
+        if (statisticsChanged.getAndSet(false)) {
+            emit(Kind.STATISTICS, null, null, statisticsService.getStatistics());
+        }
+    }
+
+    // Open streams would otherwise hold up graceful shutdown until its timeout; clients reconnect elsewhere
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        closed.tryEmitEmpty();
+    }
+
+    // Completes when the application shuts down
+    public Mono<Void> closing() {
+        return closed.asMono();
+    }
+
+    // Id of the latest delta; a page rendered now can follow the stream from here without a gap
+    public String position() {
+        return id(sequence.get());
+    }
+
+    /**
+     * Deltas after the given id, then live ones. A null id starts at the current position. A client too
+     * slow to take subscriber-buffer deltas is cut off; it resumes from its last id like any reconnect.
+     */
+    public Flux<Delta> follow(String lastEventId) {
+        return Flux.defer(() -> {
+            long current = sequence.get();
+            long after = lastEventId == null ? current : parse(lastEventId);
+            Flux<Delta> live = deltas.asFlux()
+                    .onBackpressureBuffer(subscriberBuffer, BufferOverflowStrategy.ERROR);
+            if (after < 0 || after > current) {
+                return resumeFrom(live, current).startWith(reset(current));
+            }
+            return resumeFrom(live, after);
+        });
+    }
+
+    // The replay buffer starts wherever it starts; anything up to after was seen, a hole means it was evicted
+    private Flux<Delta> resumeFrom(Flux<Delta> live, long after) {
+        AtomicLong last = new AtomicLong(after);
+        return live.concatMap(delta -> {
+            long number = parse(delta.id());
+            long previous = last.get();
+            if (number <= previous) {
+                return Flux.empty();
+            }
+            last.set(number);
+            if (number != previous + 1) {
+                return Flux.just(reset(number - 1), delta);
+            }
+            return Flux.just(delta);
+        });
+    }
+
+    private void emit(Kind kind, Long countryId, Country country, CatalogStatistics statistics) {
+        emitLock.lock();
+        try {
+            deltas.tryEmitNext(new Delta(id(sequence.incrementAndGet()), kind, countryId, country, statistics));
+        } finally {
+            emitLock.unlock();
+        }
+    }
+
+    private Delta reset(long position) {
+        return new Delta(id(position), Kind.RESET, null, null, null);
+    }
+
+    private String id(long number) {
+        return epoch + "-" + number;
+    }
+
+    // -1 for ids of another process or anything that is not an id at all
+    private long parse(String id) {
+        String prefix = epoch + "-";
+        if (!id.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
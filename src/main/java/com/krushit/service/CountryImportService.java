@@ -0,0 +1,131 @@
+package com.krushit.service;
+
+import com.krushit.dto.BulkImportReport;
+import com.krushit.dto.ImportRowResult;
+import com.krushit.entity.Country;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class CountryImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryImportService.class);
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${globalvault.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${globalvault.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public BulkImportReport importCountries(List<Country> countries) {
+        BulkImportReport report = new BulkImportReport(countries.size(), false);
+        Map<Long, Country> chunk = new LinkedHashMap<>();
+        long row = 0;
+        for (Country country : countries) {
+            addRow(chunk, row++, country, report);
+            if (chunk.size() >= chunkSize) {
+                flushChunk(chunk, report);
+            }
+        }
+        flushChunk(chunk, report);
+        return report;
+    }
+
+    // Rows are pulled from the reader only after the previous chunk is committed, so memory stays at one chunk
+    public BulkImportReport importStream(CountryRowReader reader) throws IOException {
+        BulkImportReport report = new BulkImportReport(maxReportedErrors, true);
+        Map<Long, Country> chunk = new LinkedHashMap<>();
+        long row = 0;
+        CountryRowReader.Row next;
+        while ((next = reader.next()) != null) {
+            if (next.error() != null) {
+                report.add(ImportRowResult.invalid(row, null, next.error()));
+            } else {
+                addRow(chunk, row, next.country(), report);
+            }
+            row++;
+            if (chunk.size() >= chunkSize) {
+                flushChunk(chunk, report);
+                log.debug("Streaming import progress: {} rows processed", report.getProcessed());
+            }
+        }
+        flushChunk(chunk, report);
+        log.info("Streaming import finished: {} rows, {} created, {} duplicates, {} invalid, {} failed",
+                report.getProcessed(), report.getCount(ImportRowResult.Status.CREATED),
+                report.getCount(ImportRowResult.Status.DUPLICATE), report.getCount(ImportRowResult.Status.INVALID),
+                report.getCount(ImportRowResult.Status.FAILED));
+        return report;
+    }
+
+    // Validates one row and queues it for the next chunk; invalid rows are reported and never reach the database
+    void addRow(Map<Long, Country> chunk, long row, Country country, BulkImportReport report) {
+        Set<ConstraintViolation<Country>> violations = validator.validate(country);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            report.add(ImportRowResult.invalid(row, country.getName(), message));
+            return;
+        }
+        country.setId(null);
+        chunk.put(row, country);
+    }
+
+    void flushChunk(Map<Long, Country> chunk, BulkImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ImportRowResult> results;
+        try {
+            results = countryService.insertNewCountries(chunk);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer inserted one of the names after our existence check; it is visible now
+            log.debug("Retrying import chunk after constraint violation: {}", e.getMessage());
+            try {
+                chunk.values().forEach(country -> country.setId(null));
+                results = countryService.insertNewCountries(chunk);
+            } catch (DataIntegrityViolationException retryFailure) {
+                // Not a name: some row breaks another constraint, so the rows go in one at a time to find it
+                log.debug("Inserting import chunk row by row after constraint violation: {}", retryFailure.getMessage());
+                results = insertRowByRow(chunk);
+            }
+        }
+        results.forEach(report::add);
+        chunk.clear();
+    }
+
+    private List<ImportRowResult> insertRowByRow(Map<Long, Country> chunk) {
+        List<ImportRowResult> results = new ArrayList<>(chunk.size());
+        chunk.forEach((row, country) -> {
+            country.setId(null);
+            try {
+                results.addAll(countryService.insertNewCountries(Map.of(row, country)));
+            } catch (DataIntegrityViolationException e) {
+                results.add(ImportRowResult.failed(row, country.getName(),
+                        "Rejected by the database: " + e.getMostSpecificCause().getMessage()));
+            }
+        });
+        return results;
+    }
+}
@@ -0,0 +1,14 @@
+package com.krushit.service;
+
+import java.util.List;
+
+// Carries local country mutations to the other application instances so they can drop stale cache entries
+public interface CountryInvalidationBus {
+    
+    // Called by CountryService inside the writing transaction
+    void publish(CountryChangeEvent event);
+    
+    default void publishAll(List<CountryChangeEvent> events) {
+        events.forEach(this::publish);
+    }
+}
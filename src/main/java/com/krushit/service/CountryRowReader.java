@@ -0,0 +1,25 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Pulls one country at a time from an upload so that only the current record is held in memory
+public interface CountryRowReader extends Closeable {
+    
+    // Returns null once the input is exhausted
+    Row next() throws IOException;
+    
+    // Exactly one of country and error is set
+    record Row(Country country, String error) {
+        
+        static Row of(Country country) {
+            return new Row(country, null);
+        }
+        
+        static Row error(String error) {
+            return new Row(null, error);
+        }
+    }
+}
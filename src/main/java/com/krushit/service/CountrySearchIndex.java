@@ -0,0 +1,354 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory n-gram index over country names and continents, so substring search no longer needs a
+ * LIKE '%x%' table scan. Text is folded (lower case, accents stripped) and every 1-, 2- and 3-gram is
+ * posted; a query is answered by intersecting the postings of its grams and verifying the survivors.
+ * Built once at startup and then kept current from committed change events.
+ */
+@Component
+public class CountrySearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CountrySearchIndex.class);
+
+    private static final int GRAM_LENGTH = 3;
+    // A single character occurs in nearly every name, so typeahead only matches it at the start of a word
+    private static final int MIN_SUGGESTION_INFIX_LENGTH = 2;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serialises rebuilds; not synchronized, which would pin a virtual thread while the catalog loads
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final GramIndex names = new GramIndex();
+    private final GramIndex continents = new GramIndex();
+
+    // Changes that commit while a rebuild is loading are replayed on top of the fresh snapshot
+    private List<CountryChangeEvent> pendingDuringRebuild;
+    private volatile boolean built;
+
+    private record Entry(Country country, String name, String continent) {
+    }
+
+    // Every name containing the query, like the LIKE '%x%' search it replaced
+    public List<Country> searchByName(String query, int limit) {
+        return search(names, Entry::name, query, limit, 1, entry -> true);
+    }
+
+    public List<Country> searchByContinent(String query, int limit) {
+        return search(continents, Entry::continent, query, limit, 1, entry -> true);
+    }
+
+    // Name suggestions for a search box; a one-character query only matches the start of a word
+    public List<Country> suggestByName(String query, String continent, int limit) {
+        String foldedContinent = continent == null || continent.isBlank() ? null : fold(continent);
+        return search(names, Entry::name, query, limit, MIN_SUGGESTION_INFIX_LENGTH,
+                entry -> foldedContinent == null || foldedContinent.equals(entry.continent()));
+    }
+
+    /**
+     * Results come in rank order: exact match, then prefix matches, then matches at the start of a later
+     * word, then anywhere else, each tier sorted by text. The first two tiers are read in order from the
+     * sorted prefix map, so a typeahead with plenty of prefix hits never looks at the other tiers.
+     */
+    private List<Country> search(GramIndex index, Function<Entry, String> field, String query, int limit,
+                                 int minInfixLength, Predicate<Entry> filter) {
+        String folded = query == null ? "" : fold(query);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!built) {
+            rebuild();
+        }
+        Comparator<Entry> byText = Comparator.comparing(field).thenComparing(entry -> entry.country().getId());
+        List<Entry> results = new ArrayList<>(Math.min(limit, 64));
+        Set<Long> seen = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Set<Long> ids : GramIndex.startingWith(index.prefixes, folded).values()) {
+                List<Entry> sameText = collect(ids, filter, seen);
+                sameText.sort(byText);
+                for (Entry entry : sameText) {
+                    if (results.size() == limit) {
+                        return toCountries(results);
+                    }
+                    results.add(entry);
+                }
+            }
+            List<Entry> wordMatches = new ArrayList<>();
+            for (Set<Long> ids : GramIndex.startingWith(index.wordStarts, folded).values()) {
+                wordMatches.addAll(collect(ids, filter, seen));
+            }
+            addBest(results, wordMatches, byText, limit);
+            if (results.size() < limit && folded.length() >= minInfixLength) {
+                List<Entry> infixMatches = collect(index.candidates(folded), filter, seen);
+                infixMatches.removeIf(entry -> !field.apply(entry).contains(folded));
+                addBest(results, infixMatches, byText, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toCountries(results);
+    }
+
+    private List<Entry> collect(Set<Long> ids, Predicate<Entry> filter, Set<Long> seen) {
+        List<Entry> collected = new ArrayList<>();
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null && filter.test(entry) && seen.add(id)) {
+                collected.add(entry);
+            }
+        }
+        return collected;
+    }
+
+    // Appends the best few of a tier; a bounded heap keeps this cheap when the tier is large
+    private static void addBest(List<Entry> results, List<Entry> tier, Comparator<Entry> order, int limit) {
+        int room = limit - results.size();
+        if (room <= 0 || tier.isEmpty()) {
+            return;
+        }
+        if (tier.size() <= room) {
+            tier.sort(order);
+            results.addAll(tier);
+            return;
+        }
+        PriorityQueue<Entry> best = new PriorityQueue<>(order.reversed());
+        for (Entry entry : tier) {
+            if (best.size() < room) {
+                best.add(entry);
+            } else if (order.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        List<Entry> kept = new ArrayList<>(best);
+        kept.sort(order);
+        results.addAll(kept);
+    }
+
+    private static List<Country> toCountries(List<Entry> entries) {
+        return entries.stream().map(Entry::country).toList();
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.strip(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public void rebuild() {
+        rebuild(countryRepository::findAll);
+    }
+
+    // Changes committed while the loader runs are replayed on top of what it returns
+    public void rebuild(Supplier<List<Country>> loader) {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<Country> countries = loader.get();
+            lock.writeLock().lock();
+            try {
+                entries.clear();
+                names.clear();
+                continents.clear();
+                countries.forEach(country -> add(new Country(country)));
+                pendingDuringRebuild.forEach(this::apply);
+                pendingDuringRebuild = null;
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Indexed {} countries for search", countries.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCountryChanged(CountryChangeEvent event) {
+        CountryChangeEvent change = event;
+        if (event.remote() && event.type() != CountryChangeEvent.Type.DELETED) {
+            // Remote events only carry id, name and continent; the row itself is already committed
+            Country current = countryRepository.findById(event.countryId()).map(Country::new).orElse(null);
+            change = CountryChangeEvent.remote(event.type(), event.countryId(), event.before(), current);
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+            apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Event payloads are private copies, so they can be indexed as they are
+    private void apply(CountryChangeEvent event) {
+        remove(event.countryId());
+        if (event.after() != null && event.after().getId() != null) {
+            add(event.after());
+        }
+    }
+
+    private void add(Country country) {
+        Entry entry = new Entry(country, fold(country.getName()), fold(country.getContinent()));
+        entries.put(country.getId(), entry);
+        names.add(country.getId(), entry.name());
+        continents.add(country.getId(), entry.continent());
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            names.remove(id, entry.name());
+            continents.remove(id, entry.continent());
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posting lists from every gram of up to GRAM_LENGTH characters to the ids whose text contains it,
+     * plus sorted maps keyed by the whole text and by the text from the start of each later word.
+     */
+    private static final class GramIndex {
+
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> prefixes = new TreeMap<>();
+        private final NavigableMap<String, Set<Long>> wordStarts = new TreeMap<>();
+
+        void add(Long id, String text) {
+            for (String gram : grams(text)) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+            }
+            prefixes.computeIfAbsent(text, key -> new HashSet<>()).add(id);
+            for (String suffix : wordSuffixes(text)) {
+                wordStarts.computeIfAbsent(suffix, key -> new HashSet<>()).add(id);
+            }
+        }
+
+        void remove(Long id, String text) {
+            for (String gram : grams(text)) {
+                removeId(postings, gram, id);
+            }
+            removeId(prefixes, text, id);
+            for (String suffix : wordSuffixes(text)) {
+                removeId(wordStarts, suffix, id);
+            }
+        }
+
+        private static void removeId(Map<String, Set<Long>> map, String key, Long id) {
+            Set<Long> ids = map.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                map.remove(key);
+            }
+        }
+
+        void clear() {
+            postings.clear();
+            prefixes.clear();
+            wordStarts.clear();
+        }
+
+        static SortedMap<String, Set<Long>> startingWith(NavigableMap<String, Set<Long>> map, String prefix) {
+            return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        // Ids whose text contains every gram of the query; callers still verify the full query
+        Set<Long> candidates(String query) {
+            Set<String> queryGrams = new HashSet<>();
+            if (query.length() <= GRAM_LENGTH) {
+                queryGrams.add(query);
+            } else {
+                for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+                    queryGrams.add(query.substring(i, i + GRAM_LENGTH));
+                }
+            }
+            List<Set<Long>> lists = new ArrayList<>(queryGrams.size());
+            for (String gram : queryGrams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Set.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<Long> smallest = lists.get(0);
+            if (lists.size() == 1) {
+                return smallest;
+            }
+            Set<Long> result = new HashSet<>();
+            for (Long id : smallest) {
+                if (lists.stream().allMatch(ids -> ids.contains(id))) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        private static Set<String> grams(String text) {
+            Set<String> grams = new HashSet<>();
+            for (int length = 1; length <= GRAM_LENGTH; length++) {
+                for (int i = 0; i + length <= text.length(); i++) {
+                    grams.add(text.substring(i, i + length));
+                }
+            }
+            return grams;
+        }
+
+        private static Set<String> wordSuffixes(String text) {
+            Set<String> suffixes = new HashSet<>();
+            for (int i = 1; i < text.length(); i++) {
+                if (Character.isLetterOrDigit(text.charAt(i)) && !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    suffixes.add(text.substring(i));
+                }
+            }
+            return suffixes;
+        }
+    }
+}
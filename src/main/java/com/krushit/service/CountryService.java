@@ -1,89 +1,386 @@
 package com.krushit.service;
 
+import com.krushit.config.DataSourceRoute;
+import com.krushit.dto.CatalogStatistics;
+import com.krushit.dto.CountryCursor;
+import com.krushit.dto.CountryField;
+import com.krushit.dto.CountryPage;
+import com.krushit.dto.CountryQuery;
+import com.krushit.dto.GroupAggregate;
+import com.krushit.dto.ImportRowResult;
+import com.krushit.dto.RankedCountry;
 import com.krushit.entity.Country;
 import com.krushit.repository.CountryRepository;
+import com.krushit.repository.CountrySpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+// Every public method is timed as globalvault.country.service{class,method,exception}
 @Service
+@Timed(value = "globalvault.country.service", description = "CountryService method latency")
 public class CountryService {
     
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SUGGESTIONS = 10;
+    public static final int MAX_SUGGESTIONS = 50;
+    public static final int DEFAULT_TOP = 10;
+    
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "name", "continent", "population", "area", "capital", "currency", "language");
+    private static final Sort DEFAULT_QUERY_SORT = Sort.by("continent", "name");
+    private static final Sort EXPORT_ORDER = Sort.by("continent", "name", "id");
+    
     @Autowired
     private CountryRepository countryRepository;
     
+    @Autowired
+    private CountryCache countryCache;
+    
+    @Autowired
+    private CountryStatisticsService statisticsService;
+    
+    @Autowired
+    private CountrySearchIndex searchIndex;
+    
+    @Autowired
+    private CountryAnalytics analytics;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CountryInvalidationBus invalidationBus;
+    
+    @Autowired
+    private NotificationOutboxService notificationOutbox;
+    
+    @Autowired
+    private SingleFlight singleFlight;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @PostConstruct
+    void createReadOnlyTransaction() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Country> getAllCountries() {
         return countryRepository.findAllByOrderByContinentAscNameAsc();
     }
     
+    public CountryPage getCountriesPage(String after, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return coalesce("getCountriesPage", () -> readCountriesPage(after, pageSize), after, pageSize);
+    }
+    
+    private CountryPage readCountriesPage(String after, int pageSize) {
+        // Fetch one extra row to find out whether another page follows
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Country> countries;
+        if (after == null || after.isBlank()) {
+            countries = countryRepository.findAllByOrderByContinentAscNameAscIdAsc(fetchLimit);
+        } else {
+            CountryCursor cursor = CountryCursor.decode(after);
+            countries = countryRepository.findPageAfter(cursor.continent(), cursor.name(), cursor.id(), fetchLimit);
+        }
+        if (countries.size() <= pageSize) {
+            return new CountryPage(countries, null);
+        }
+        List<Country> page = countries.subList(0, pageSize);
+        return new CountryPage(page, CountryCursor.of(page.get(pageSize - 1)).encode());
+    }
+    
+    // One filtered, sorted and paged SELECT plus its COUNT
+    public Page<Country> queryCountries(CountryQuery query, Pageable pageable) {
+        PageRequest request = toPageRequest(query, pageable);
+        return coalesce("queryCountries",
+                () -> countryRepository.findAll(CountrySpecifications.matching(query), request), query, request);
+    }
+    
+    // Same query, but only the requested columns are selected; rows hold values in field order
+    public Page<Object[]> queryCountryColumns(CountryQuery query, List<CountryField> fields, Pageable pageable) {
+        PageRequest request = toPageRequest(query, pageable);
+        Specification<Country> specification = CountrySpecifications.matching(query);
+        return coalesce("queryCountryColumns", () -> {
+            List<Object[]> rows = countryRepository.findColumns(fields, specification, request);
+            return PageableExecutionUtils.getPage(rows, request, () -> countryRepository.count(specification));
+        }, query, fields, request);
+    }
+    
+    /**
+     * Runs a read in its own read-only transaction, shared with identical reads already in flight. The
+     * transaction is only opened by the caller that runs the query, so callers waiting for it hold no
+     * connection. The catalog version is part of the key: nobody joins a read that began before their write.
+     */
+    private <T> T coalesce(String operation, Supplier<T> read, Object... key) {
+        List<Object> flightKey = new ArrayList<>(key.length + 1);
+        flightKey.add(catalogVersion.current().tag());
+        flightKey.addAll(Arrays.asList(key));
+        return singleFlight.execute(operation, flightKey, () -> readOnlyTransaction.execute(status -> read.get()));
+    }
+    
+    private static PageRequest toPageRequest(CountryQuery query, Pageable pageable) {
+        query.validate();
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by '" + order.getProperty() + "'");
+            }
+        }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : DEFAULT_QUERY_SORT;
+        int pageSize = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+        // id is always the last sort key so that equal values do not shuffle between pages
+        return PageRequest.of(pageable.getPageNumber(), pageSize, sort.and(Sort.by("id")));
+    }
+    
+    // Rows are projections rather than entities, so nothing accumulates in the persistence context
+    @Transactional(readOnly = true)
+    public void streamAllCountries(List<CountryField> fields, Consumer<Object[]> consumer) {
+        try (Stream<Object[]> rows = countryRepository.streamColumns(fields, null, EXPORT_ORDER)) {
+            rows.forEach(consumer);
+        }
+    }
+    
     public Optional<Country> getCountryById(Long id) {
-        return countryRepository.findById(id);
+        return countryCache.getById(id, () -> countryRepository.findById(id));
     }
 
     public Optional<Country> getCountryByName(String name) {
-        return countryRepository.findByName(name);
+        return countryCache.getByName(name, () -> countryRepository.findByName(name));
     }
     
     public List<Country> getCountriesByContinent(String continent) {
-        return countryRepository.findByContinentOrderByNameAsc(continent);
+        return countryCache.getByContinent(continent, () -> countryRepository.findByContinentOrderByNameAsc(continent));
     }
     
     public List<Country> searchCountriesByName(String name) {
-        return countryRepository.findByNameContainingIgnoreCase(name);
+        return searchIndex.searchByName(name, Integer.MAX_VALUE);
     }
     
     public List<Country> searchCountriesByContinent(String continent) {
-        return countryRepository.findByContinentContainingIgnoreCase(continent);
+        return searchIndex.searchByContinent(continent, Integer.MAX_VALUE);
+    }
+    
+    // Best-ranked name matches for a search box, optionally restricted to one continent
+    public List<Country> suggestCountries(String query, String continent, Integer limit) {
+        int size = limit == null ? DEFAULT_SUGGESTIONS : Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return searchIndex.suggestByName(query, continent, size);
     }
     
-   public List<String> getAllContinents() {
-        return countryRepository.findAllDistinctContinents();
+    public List<String> getAllContinents() {
+        return statisticsService.getStatistics().getContinents();
     }
     
+    // Served from the analytics columns, in the same order as CountryRepository.findCountriesWithPopulationGreaterThan
     public List<Country> getCountriesWithPopulationGreaterThan(Long population) {
-        return countryRepository.findCountriesWithPopulationGreaterThan(population);
+        return analytics.populationGreaterThan(population);
+    }
+    
+    public List<RankedCountry> getTopCountries(CountryAnalytics.Metric metric, Integer limit, boolean ascending) {
+        int size = limit == null ? DEFAULT_TOP : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return analytics.top(metric, size, ascending);
+    }
+    
+    public Map<Double, Double> getPercentiles(CountryAnalytics.Metric metric, List<Double> percentiles) {
+        return analytics.percentiles(metric, percentiles);
+    }
+    
+    public int countCountriesWith(CountryAnalytics.Metric metric) {
+        return analytics.count(metric);
+    }
+    
+    public List<GroupAggregate> aggregateCountries(CountryAnalytics.Dimension dimension, CountryAnalytics.Metric metric) {
+        return analytics.groupBy(dimension, metric);
     }
     
     public List<Object[]> getCountryCountByContinent() {
-        return countryRepository.countCountriesByContinent();
+        return statisticsService.getStatistics().getCountsByContinent();
+    }
+    
+    public CatalogStatistics getStatistics() {
+        return statisticsService.getStatistics();
     }
     
+    public CatalogStatistics rebuildStatistics() {
+        return statisticsService.rebuild();
+    }
+    
+    // A name that is already taken fails the insert itself with DataIntegrityViolationException
+    @Transactional
     public Country saveCountry(Country country) {
-        return countryRepository.save(country);
+        Country saved = countryRepository.saveAndFlush(country);
+        publishChange(CountryChangeEvent.created(saved));
+        notificationOutbox.enqueue("Country Added", saved.getName());
+        return saved;
     }
     
+    // Inserts one chunk of an import: one IN query for existing names, then a single JDBC batch for the new rows
+    @Transactional
+    public List<ImportRowResult> insertNewCountries(Map<Long, Country> rows) {
+        Set<String> taken = new HashSet<>();
+        List<String> names = rows.values().stream().map(Country::getName).toList();
+        countryRepository.findExistingNames(names).forEach(name -> taken.add(name.toLowerCase(Locale.ROOT)));
+        
+        Map<Long, Country> fresh = new LinkedHashMap<>();
+        rows.forEach((row, country) -> {
+            if (taken.add(country.getName().toLowerCase(Locale.ROOT))) {
+                fresh.put(row, country);
+            }
+        });
+        countryRepository.saveAll(fresh.values());
+        countryRepository.flush();
+        
+        List<ImportRowResult> results = new ArrayList<>(rows.size());
+        List<CountryChangeEvent> events = new ArrayList<>(fresh.size());
+        rows.forEach((row, country) -> {
+            if (fresh.containsKey(row)) {
+                results.add(ImportRowResult.created(row, country.getName(), country.getId()));
+                events.add(CountryChangeEvent.created(country));
+            } else {
+                results.add(ImportRowResult.duplicate(row, country.getName()));
+            }
+        });
+        publishChanges(events);
+        entityManager.clear();
+        return results;
+    }
+    
+    @Transactional
     public Country updateCountry(Long id, Country countryDetails) {
-        Optional<Country> optionalCountry = countryRepository.findById(id);
-        if (optionalCountry.isPresent()) {
-            Country country = optionalCountry.get();
-            country.setName(countryDetails.getName());
-            country.setContinent(countryDetails.getContinent());
-            country.setPopulation(countryDetails.getPopulation());
-            country.setCapital(countryDetails.getCapital());
-            country.setArea(countryDetails.getArea());
-            country.setCurrency(countryDetails.getCurrency());
-            country.setLanguage(countryDetails.getLanguage());
-            return countryRepository.save(country);
+        return updateCountry(id, countryDetails, null);
+    }
+    
+    /**
+     * expectedRevisions comes from If-Match; null accepts any row, otherwise the stored row's
+     * {@link Country#revision()} must be listed.
+     * The row is changed by one UPDATE guarded by its version. The previous state, which the change event
+     * needs, is taken from the cache when it has the row; if the cached row turns out to be stale the UPDATE
+     * matches nothing and the row is read before trying once more.
+     */
+    @Transactional
+    public Country updateCountry(Long id, Country countryDetails, Collection<String> expectedRevisions) {
+        Instant modifiedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Optional<Country> cached = countryCache.peekById(id);
+        if (cached.isPresent() && (expectedRevisions == null || expectedRevisions.contains(cached.get().revision()))
+                && countryRepository.updateIfVersion(id, cached.get().getVersion(), countryDetails, modifiedAt) == 1) {
+            return publishUpdate(new Country(cached.get()), countryDetails, modifiedAt);
+        }
+        Optional<Country> current = countryRepository.findById(id).map(Country::new);
+        if (current.isEmpty()) {
+            return null;
+        }
+        Country before = current.get();
+        if (expectedRevisions != null && !expectedRevisions.contains(before.revision())) {
+            throw new OptimisticLockingFailureException(
+                    "Country with ID " + id + " has been modified (current version " + before.getVersion() + ")");
         }
-        return null;
+        if (countryRepository.updateIfVersion(id, before.getVersion(), countryDetails, modifiedAt) == 0) {
+            throw new OptimisticLockingFailureException("Country with ID " + id + " was modified concurrently");
+        }
+        return publishUpdate(before, countryDetails, modifiedAt);
+    }
+    
+    private Country publishUpdate(Country before, Country countryDetails, Instant modifiedAt) {
+        Country updated = before.updatedWith(countryDetails, modifiedAt);
+        publishChange(CountryChangeEvent.updated(before, updated));
+        return updated;
     }
     
+    // One versioned DELETE, with the previous state from the cache like updateCountry; if the cached row is
+    // stale the row is read once more, and a row that changes again in between is a concurrent modification
+    @Transactional
     public boolean deleteCountry(Long id) {
-        Optional<Country> optionalCountry = countryRepository.findById(id);
-        if (optionalCountry.isPresent()) {
-            countryRepository.deleteById(id);
-            return true;
+        Optional<Country> cached = countryCache.peekById(id);
+        if (cached.isPresent() && countryRepository.deleteIfVersion(id, cached.get().getVersion()) == 1) {
+            return publishDelete(new Country(cached.get()));
+        }
+        Optional<Country> current = countryRepository.findById(id).map(Country::new);
+        if (current.isEmpty()) {
+            return false;
+        }
+        if (countryRepository.deleteIfVersion(id, current.get().getVersion()) == 0) {
+            throw new OptimisticLockingFailureException("Country with ID " + id + " was modified concurrently");
         }
-        return false;
+        return publishDelete(current.get());
+    }
+    
+    private boolean publishDelete(Country before) {
+        publishChange(CountryChangeEvent.deleted(before));
+        notificationOutbox.enqueue("Country Deleted", "ID=" + before.getId());
+        return true;
     }
     
+    // Asked after a rejected write, so it reads the primary, which already has the row that caused it
     public boolean existsByName(String name) {
-        return countryRepository.findByName(name).isPresent();
+        try (DataSourceRoute.Pin primary = DataSourceRoute.pinToPrimary()) {
+            return countryRepository.existsByName(name);
+        }
     }
     
     public long getTotalCountryCount() {
-        return countryRepository.count();
+        return statisticsService.getStatistics().getTotal().countries();
+    }
+    
+    private void publishChange(CountryChangeEvent event) {
+        eventPublisher.publishEvent(event);
+        invalidationBus.publish(event);
+    }
+    
+    private void publishChanges(List<CountryChangeEvent> events) {
+        if (!events.isEmpty()) {
+            events.forEach(eventPublisher::publishEvent);
+            invalidationBus.publishAll(events);
+        }
+    }
+    
+    public CatalogVersion.Stamp getCatalogVersion() {
+        return catalogVersion.current();
+    }
+    
+    public Map<String, Map<String, Object>> getCacheStatistics() {
+        return countryCache.getStatistics();
     }
 } 
\ No newline at end of file
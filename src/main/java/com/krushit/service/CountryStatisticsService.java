@@ -0,0 +1,98 @@
+package com.krushit.service;
+
+import com.krushit.config.DataSourceRoute;
+import com.krushit.dto.CatalogStatistics;
+import com.krushit.dto.ContinentStatistics;
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Materialized continent statistics. Built once at startup (see CatalogWarmup), then kept current by applying
+ * each committed local change as a delta. Changes replayed from other instances only name the affected
+ * rows, so they mark the snapshot stale and the next read rebuilds it.
+ */
+@Component
+public class CountryStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CountryStatisticsService.class);
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    private volatile CatalogStatistics snapshot;
+    private volatile boolean stale = true;
+
+    // Bumped on every change so a rebuild that raced with a delta knows its result may be outdated
+    private long generation;
+
+    public CatalogStatistics getStatistics() {
+        CatalogStatistics current = snapshot;
+        if (stale || current == null) {
+            // Readers that find the snapshot stale at the same time share one rebuild
+            return singleFlight.execute("statistics", currentGeneration(), this::rebuild);
+        }
+        return current;
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    public CatalogStatistics rebuild() {
+        return rebuild(() -> CatalogStatistics.of(countryRepository.aggregateByContinent()));
+    }
+
+    public CatalogStatistics rebuild(Supplier<CatalogStatistics> loader) {
+        long startedAt;
+        synchronized (this) {
+            startedAt = generation;
+            stale = false;
+        }
+        CatalogStatistics rebuilt;
+        // From the primary, so a replica that has yet to receive a change it was told about is not counted
+        try (DataSourceRoute.Pin primary = DataSourceRoute.pinToPrimary()) {
+            rebuilt = loader.get();
+        }
+        synchronized (this) {
+            if (generation != startedAt) {
+                stale = true;
+            }
+            snapshot = rebuilt;
+        }
+        log.debug("Rebuilt continent statistics: {} countries in {} continents",
+                rebuilt.getTotal().countries(), rebuilt.getContinents().size());
+        return rebuilt;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCountryChanged(CountryChangeEvent event) {
+        generation++;
+        if (event.remote() || snapshot == null) {
+            stale = true;
+            return;
+        }
+        Map<String, ContinentStatistics> continents = new HashMap<>(snapshot.getByContinent());
+        Country before = event.before();
+        Country after = event.after();
+        if (before != null) {
+            continents.computeIfPresent(before.getContinent(), (continent, statistics) -> statistics.minus(before));
+        }
+        if (after != null) {
+            continents.merge(after.getContinent(), ContinentStatistics.empty(after.getContinent()).plus(after),
+                    (existing, added) -> existing.plus(after));
+        }
+        snapshot = CatalogStatistics.of(continents.values());
+    }
+}
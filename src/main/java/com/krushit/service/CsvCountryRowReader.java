@@ -0,0 +1,146 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// RFC 4180 CSV with a header row naming the Country properties; columns may come in any order
+public class CsvCountryRowReader implements CountryRowReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private boolean endOfInput;
+
+    public CsvCountryRowReader(Reader reader, int maxRecordLength) throws IOException {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        if (header.size() == 1 && header.get(0) == null) {
+            throw new IllegalArgumentException("CSV header exceeds " + maxRecordLength + " characters");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).strip();
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            columns.put(column.toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("continent")) {
+            throw new IllegalArgumentException("CSV header must contain 'name' and 'continent' columns");
+        }
+    }
+
+    @Override
+    public Row next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() == 1 && record.get(0) == null) {
+                return Row.error("Record exceeds " + maxRecordLength + " characters");
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        try {
+            Country country = new Country(field(record, "name"), field(record, "continent"));
+            country.setCapital(field(record, "capital"));
+            country.setCurrency(field(record, "currency"));
+            country.setLanguage(field(record, "language"));
+            String population = field(record, "population");
+            country.setPopulation(population == null ? null : Long.valueOf(population));
+            String area = field(record, "area");
+            country.setArea(area == null ? null : Double.valueOf(area));
+            return Row.of(country);
+        } catch (NumberFormatException e) {
+            return Row.error("Invalid number: " + e.getMessage());
+        }
+    }
+
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Returns null at end of input, or a single null field when the record was too long to keep
+    private List<String> readRecord() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean tooLong = false;
+        int length = 0;
+        int c = reader.read();
+        if (c == -1) {
+            endOfInput = true;
+            return null;
+        }
+        while (c != -1) {
+            if (++length > maxRecordLength) {
+                tooLong = true;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else if (!tooLong) {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (!tooLong) {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r' && !tooLong) {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (c == -1) {
+            endOfInput = true;
+        }
+        if (tooLong) {
+            List<String> marker = new ArrayList<>(1);
+            marker.add(null);
+            return marker;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
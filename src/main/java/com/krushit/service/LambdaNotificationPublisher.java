@@ -0,0 +1,40 @@
+package com.krushit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.InvokeRequest;
+import software.amazon.awssdk.services.lambda.model.InvokeResponse;
+
+// Blocks the dispatcher for each invocation in turn; the async publisher is the default
+@Component
+@ConditionalOnProperty(name = "globalvault.notifications.publisher", havingValue = "lambda")
+public class LambdaNotificationPublisher implements NotificationPublisher {
+    
+    private static final Logger log = LoggerFactory.getLogger(LambdaNotificationPublisher.class);
+    
+    @Autowired
+    private LambdaClient lambdaClient;
+    
+    @Value("${aws.lambda.function.name}")
+    private String lambdaFunctionName;
+    
+    @Override
+    public void publish(NotificationEvent event) {
+        InvokeRequest request = InvokeRequest.builder()
+                .functionName(lambdaFunctionName)
+                .payload(SdkBytes.fromUtf8String(event.toPayload()))
+                .build();
+        
+        InvokeResponse response = lambdaClient.invoke(request);
+        if (response.functionError() != null) {
+            throw new IllegalStateException("Lambda function error: " + response.functionError());
+        }
+        log.debug("Lambda invoked for outbox event {}: {}", event.id(), response.statusCode());
+    }
+}
@@ -0,0 +1,14 @@
+package com.krushit.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Single-instance deployments: local events already reach the cache, nothing has to leave the JVM
+@Component
+@ConditionalOnProperty(name = "globalvault.cache.invalidation.mode", havingValue = "local")
+public class LocalInvalidationBus implements CountryInvalidationBus {
+    
+    @Override
+    public void publish(CountryChangeEvent event) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.krushit.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// For local runs without AWS credentials: events are drained from the outbox and only logged
+@Component
+@ConditionalOnProperty(name = "globalvault.notifications.publisher", havingValue = "log")
+public class LoggingNotificationPublisher implements NotificationPublisher {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationPublisher.class);
+    
+    @Override
+    public void publish(NotificationEvent event) {
+        log.info("Notification {}: {}", event.id(), event.toPayload());
+    }
+}
@@ -0,0 +1,63 @@
+package com.krushit.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// One JSON object per line; a malformed line only fails that row. The reader must be bound to Country.
+public class NdjsonCountryRowReader implements CountryRowReader {
+    
+    private final Reader reader;
+    private final ObjectReader objectReader;
+    private final int maxLineLength;
+    private final StringBuilder line = new StringBuilder();
+    private boolean firstLine = true;
+    
+    public NdjsonCountryRowReader(Reader reader, ObjectReader objectReader, int maxLineLength) {
+        this.reader = reader;
+        this.objectReader = objectReader;
+        this.maxLineLength = maxLineLength;
+    }
+    
+    @Override
+    public Row next() throws IOException {
+        while (true) {
+            line.setLength(0);
+            boolean tooLong = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (line.length() < maxLineLength) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            // A byte order mark some editors put at the start of the file
+            if (firstLine && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line.deleteCharAt(0);
+            }
+            firstLine = false;
+            if (c == -1 && line.isEmpty()) {
+                return null;
+            }
+            if (tooLong) {
+                return Row.error("Line exceeds " + maxLineLength + " characters");
+            }
+            if (line.toString().isBlank()) {
+                continue;
+            }
+            try {
+                return Row.of(objectReader.readValue(line.toString()));
+            } catch (JsonProcessingException e) {
+                return Row.error("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
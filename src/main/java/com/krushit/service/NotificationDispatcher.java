@@ -0,0 +1,237 @@
+package com.krushit.service;
+
+import com.krushit.entity.NotificationOutbox;
+import com.krushit.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the notification outbox in the background. Each round claims a batch of due events in a short
+ * transaction, hands them all to the NotificationPublisher with no transaction or connection held, and
+ * records the outcomes in a second one; failed events are rescheduled with exponential backoff until they
+ * run out of attempts. Invocations are only started within the publish timeout, and each is bounded by it,
+ * so a batch is settled well within its lease even when the publisher blocks on every call.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationPublisher publisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${globalvault.notifications.batch-size:50}")
+    private int batchSize;
+
+    @Value("${globalvault.notifications.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${globalvault.notifications.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${globalvault.notifications.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Value("${globalvault.notifications.publish-timeout:30s}")
+    private Duration publishTimeout;
+
+    @Value("${globalvault.notifications.retention:1d}")
+    private Duration retention;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+
+    @PostConstruct
+    void registerMeters() {
+        FunctionCounter.builder("globalvault.notifications.dispatched", dispatched, AtomicLong::get)
+                .description("Notifications handed to the publisher successfully")
+                .register(meterRegistry);
+        FunctionCounter.builder("globalvault.notifications.failed.attempts", failedAttempts, AtomicLong::get)
+                .description("Publish attempts that failed and were rescheduled or abandoned")
+                .register(meterRegistry);
+        FunctionCounter.builder("globalvault.notifications.abandoned", abandoned, AtomicLong::get)
+                .description("Notifications given up on after the last attempt")
+                .register(meterRegistry);
+        // Both gauges query the outbox, so they cost one indexed query per scrape
+        Gauge.builder("globalvault.notifications.pending", outboxRepository,
+                        repository -> repository.countByStatus(NotificationOutbox.Status.PENDING))
+                .description("Outbox events waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("globalvault.notifications.lag", this, dispatcher -> dispatcher.getLag().toMillis() / 1000.0)
+                .description("Age of the oldest undelivered outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${globalvault.notifications.poll-interval:500ms}")
+    public void dispatchPending() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+
+    private int dispatchBatch() {
+        // Calls start within one publish timeout and end within another; the third leaves room to record them
+        Instant lease = Instant.now().plus(publishTimeout.multipliedBy(3)).truncatedTo(ChronoUnit.MICROS);
+        List<NotificationOutbox> batch = transactionTemplate.execute(status -> claim(lease));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Exception> failures = new HashMap<>();
+        Set<Long> unstarted = publish(batch, failures);
+        transactionTemplate.executeWithoutResult(status -> record(batch, failures, unstarted, lease));
+        return batch.size();
+    }
+
+    // Moves the due events' next attempt past the lease, so the row locks are released on commit without
+    // another dispatcher picking them up; should this one stop, they are retried once the lease runs out
+    private List<NotificationOutbox> claim(Instant lease) {
+        List<NotificationOutbox> batch = outboxRepository.claimDue(Instant.now(), Limit.of(batchSize));
+        for (NotificationOutbox entry : batch) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setNextAttemptAt(lease);
+        }
+        return batch;
+    }
+
+    // Runs outside any transaction; collects the failed events' errors by id and returns the ids of the events
+    // it did not get to, once a publisher that blocks has used up the publish timeout on earlier ones
+    private Set<Long> publish(List<NotificationOutbox> batch, Map<Long, Exception> failures) {
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(batch.size());
+        long deadline = System.nanoTime() + publishTimeout.toNanos();
+        for (NotificationOutbox entry : batch) {
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            deliveries.add(publisher.publishAsync(new NotificationEvent(entry.getId(), entry.getAction(), entry.getDetails(), entry.getCreatedAt()))
+                    .whenComplete((ignored, failure) -> sample.stop(meterRegistry.timer("globalvault.notifications.publish",
+                            "outcome", failure == null ? "success" : "failure"))));
+        }
+        for (int i = 0; i < deliveries.size(); i++) {
+            Long id = batch.get(i).getId();
+            try {
+                deliveries.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                failures.put(id, e.getCause() instanceof Exception cause ? cause : e);
+            } catch (TimeoutException e) {
+                // The call may still succeed; delivery is at-least-once either way
+                failures.put(id, new TimeoutException("No response within " + publishTimeout.toMillis() + " ms"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(id, e);
+            }
+        }
+        Set<Long> unstarted = new HashSet<>();
+        for (NotificationOutbox entry : batch.subList(deliveries.size(), batch.size())) {
+            unstarted.add(entry.getId());
+        }
+        return unstarted;
+    }
+
+    // Events whose lease ran out meanwhile belong to whichever dispatcher claimed them next
+    private void record(List<NotificationOutbox> batch, Map<Long, Exception> failures, Set<Long> unstarted, Instant lease) {
+        Instant now = Instant.now();
+        for (NotificationOutbox entry : outboxRepository.findAllById(batch.stream().map(NotificationOutbox::getId).toList())) {
+            if (entry.getStatus() != NotificationOutbox.Status.PENDING || !lease.equals(entry.getNextAttemptAt())) {
+                continue;
+            }
+            // Handed back untried, for the next round or another dispatcher
+            if (unstarted.contains(entry.getId())) {
+                entry.setAttempts(entry.getAttempts() - 1);
+                entry.setNextAttemptAt(now);
+                continue;
+            }
+            Exception failure = failures.get(entry.getId());
+            if (failure != null) {
+                scheduleRetry(entry, failure, now);
+                continue;
+            }
+            entry.setStatus(NotificationOutbox.Status.DISPATCHED);
+            entry.setDispatchedAt(now);
+            entry.setLastError(null);
+            dispatched.incrementAndGet();
+        }
+    }
+
+    private void scheduleRetry(NotificationOutbox entry, Exception failure, Instant now) {
+        failedAttempts.incrementAndGet();
+        String message = failure.getMessage() == null ? failure.getClass().getName() : failure.getMessage();
+        entry.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        int attempt = entry.getAttempts();
+        if (attempt >= maxAttempts) {
+            entry.setStatus(NotificationOutbox.Status.FAILED);
+            abandoned.incrementAndGet();
+            log.error("Giving up on notification {} after {} attempts: {}", entry.getId(), attempt, message);
+            return;
+        }
+        long backoff = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        // Jitter keeps replicas from retrying a failing target in lockstep
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 4 + 1);
+        entry.setNextAttemptAt(now.plusMillis(backoff + jitter));
+        log.warn("Notification {} failed (attempt {}), retrying in {} ms: {}", entry.getId(), attempt, backoff + jitter, message);
+    }
+
+    @Scheduled(fixedDelayString = "${globalvault.notifications.purge-interval:1h}")
+    public void purgeDispatched() {
+        outboxRepository.deleteDispatchedBefore(Instant.now().minus(retention));
+    }
+
+    // Age of the oldest event still waiting for delivery; zero when the outbox is drained
+    public Duration getLag() {
+        return outboxRepository.findOldestPendingCreatedAt()
+                .map(oldest -> Duration.between(oldest, Instant.now()))
+                .filter(lag -> !lag.isNegative())
+                .orElse(Duration.ZERO);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pending", outboxRepository.countByStatus(NotificationOutbox.Status.PENDING));
+        status.put("failed", outboxRepository.countByStatus(NotificationOutbox.Status.FAILED));
+        status.put("lagMillis", getLag().toMillis());
+        status.put("dispatched", dispatched.get());
+        status.put("failedAttempts", failedAttempts.get());
+        status.put("abandoned", abandoned.get());
+        return status;
+    }
+}
@@ -0,0 +1,14 @@
+package com.krushit.service;
+
+import java.time.Instant;
+
+public record NotificationEvent(Long id, String action, String details, Instant createdAt) {
+    
+    public String toPayload() {
+        return String.format("{\"action\": \"%s\", \"details\": \"%s\"}", escape(action), escape(details));
+    }
+    
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
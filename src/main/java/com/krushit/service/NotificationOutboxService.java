@@ -0,0 +1,23 @@
+package com.krushit.service;
+
+import com.krushit.entity.NotificationOutbox;
+import com.krushit.repository.NotificationOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Service
+public class NotificationOutboxService {
+    
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+    
+    // Must join the caller's transaction so the event is stored if and only if the country change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String action, String details) {
+        outboxRepository.save(new NotificationOutbox(action, details, Instant.now()));
+    }
+}
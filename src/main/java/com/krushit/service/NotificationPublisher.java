@@ -0,0 +1,19 @@
+package com.krushit.service;
+
+import java.util.concurrent.CompletableFuture;
+
+// Delivers outbox events to their target; throwing leaves the event pending so the dispatcher retries it
+public interface NotificationPublisher {
+    
+    void publish(NotificationEvent event) throws Exception;
+    
+    // The dispatcher starts a whole batch before waiting on any of it, so non-blocking publishers deliver it concurrently
+    default CompletableFuture<Void> publishAsync(NotificationEvent event) {
+        try {
+            publish(event);
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
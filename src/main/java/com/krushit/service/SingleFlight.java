@@ -0,0 +1,76 @@
+package com.krushit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads. The first caller for a key runs the query; callers arriving
+ * while it is in flight wait for its result instead of sending the same query to the database.
+ * Nothing is kept once the query returns, so callers that need read-your-writes put the catalog
+ * version into the key. Results are shared between callers and must not be modified.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> loader) {
+        List<Object> flightKey = List.of(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            counter(operation, "follower").increment();
+            return (T) await(leader);
+        }
+        counter(operation, "leader").increment();
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    // Followers get the leader's exception as it was thrown, so callers handle it the same way
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // leader: ran the query; follower: shared the result of one already in flight
+    private Counter counter(String operation, String role) {
+        return counters.computeIfAbsent(operation + "/" + role, name -> Counter.builder("globalvault.singleflight.calls")
+                .description("Coalesced reads by whether the caller ran the query or shared one in flight")
+                .tag("operation", operation)
+                .tag("role", role)
+                .register(meterRegistry));
+    }
+}
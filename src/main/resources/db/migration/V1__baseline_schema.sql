@@ -0,0 +1,66 @@
+-- Upgrades the schema the application had before migrations, which Hibernate's ddl-auto=update created
+-- from the original entity: a countries table with AUTO_INCREMENT ids and nothing else. Such databases
+-- are baselined at V0 (spring.flyway.baseline-on-migrate) and run this script; on an empty database
+-- the old table is created first, so both end up with the same schema.
+
+create table if not exists countries (
+    area float(53),
+    id bigint not null auto_increment,
+    population bigint,
+    capital varchar(255),
+    continent varchar(50) not null,
+    currency varchar(255),
+    language varchar(255),
+    name varchar(100) not null,
+    primary key (id),
+    -- Hibernate's generated name for the unique name column
+    constraint UK1pyiwrqimi3hnl3vtgsypj5r unique (name)
+) engine=InnoDB;
+
+-- Ids come from the id_generator table, seeded past the existing ids by V3
+alter table countries modify id bigint not null;
+-- Existing rows start at version 0, like new ones
+alter table countries add column version bigint not null default 0;
+alter table countries add column last_modified datetime(6);
+
+create table country_change_log (
+    country_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    change_type varchar(16) not null,
+    instance_id varchar(64) not null,
+    new_continent varchar(255),
+    new_name varchar(255),
+    old_continent varchar(255),
+    old_name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table id_generator (
+    next_value bigint,
+    generator_name varchar(255) not null,
+    primary key (generator_name)
+) engine=InnoDB;
+
+create table notification_outbox (
+    attempts integer not null,
+    created_at datetime(6) not null,
+    dispatched_at datetime(6),
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    action varchar(64) not null,
+    last_error varchar(1000),
+    details varchar(255) not null,
+    status enum ('DISPATCHED','FAILED','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_countries_continent_name on countries (continent, name);
+create index idx_countries_population on countries (population);
+create index idx_countries_area on countries (area);
+create index idx_countries_currency on countries (currency);
+create index idx_countries_language on countries (language);
+
+create index idx_country_change_log_created_at on country_change_log (created_at);
+
+create index idx_notification_outbox_due on notification_outbox (status, next_attempt_at);
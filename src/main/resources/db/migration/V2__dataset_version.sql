@@ -0,0 +1,7 @@
+-- Which version of a bundled dataset was last loaded, so startup can skip seeding with a single lookup
+create table dataset_version (
+    name varchar(64) not null,
+    version varchar(64) not null,
+    applied_at datetime(6) not null,
+    primary key (name)
+) engine=InnoDB;
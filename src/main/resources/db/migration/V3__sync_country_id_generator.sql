@@ -0,0 +1,11 @@
+-- Countries used to get AUTO_INCREMENT ids. The table generator that replaced them starts from scratch,
+-- so its counter is moved past the highest id in the table, leaving a whole allocation block (50) above
+-- it whichever optimizer Hibernate picks. This used to run on every startup.
+insert into id_generator (generator_name, next_value)
+select 'countries', coalesce(max(id), 0) + 51 from countries
+where not exists (select 1 from id_generator where generator_name = 'countries');
+
+update id_generator
+set next_value = (select coalesce(max(id), 0) + 51 from countries)
+where generator_name = 'countries'
+  and next_value < (select coalesce(max(id), 0) + 51 from countries);
@@ -117,6 +117,35 @@ const App = {
         }
     },
     
+    // Filtered, sorted page of countries; empty criteria are left out of the query string
+    queryCountries: async function(criteria) {
+        const params = new URLSearchParams();
+        Object.entries(criteria).forEach(([key, value]) => {
+            if (value !== undefined && value !== null && value !== '') {
+                params.append(key, value);
+            }
+        });
+        try {
+            return await this.apiRequest(`${this.apiBaseUrl}/query?${params}`);
+        } catch (error) {
+            this.showNotification('Failed to load countries: ' + error.message, 'error');
+            return null;
+        }
+    },
+    
+    // Ranked name suggestions for the search box
+    suggestCountries: async function(query, continent = '', limit = 10) {
+        try {
+            let url = `${this.apiBaseUrl}/typeahead?q=${encodeURIComponent(query)}&limit=${limit}&fields=name,continent`;
+            if (continent) {
+                url += `&continent=${encodeURIComponent(continent)}`;
+            }
+            return await this.apiRequest(url);
+        } catch (error) {
+            return [];
+        }
+    },
+    
     // Get countries by continent
     getCountriesByContinent: async function(continent) {
         try {
@@ -194,6 +223,23 @@ const App = {
         }
     },
     
+    // Follow committed changes over server-sent events, starting after the given stream position.
+    // The browser reconnects on its own and resumes from the last delta it received. Returns null
+    // where EventSource is unavailable, so callers can fall back to reloading.
+    followChanges: function(after, handlers) {
+        if (typeof EventSource === 'undefined') return null;
+        const url = after
+            ? `${this.apiBaseUrl}/changes?after=${encodeURIComponent(after)}`
+            : `${this.apiBaseUrl}/changes`;
+        const source = new EventSource(url);
+        ['created', 'updated', 'deleted', 'statistics', 'reset'].forEach(type => {
+            if (handlers[type]) {
+                source.addEventListener(type, event => handlers[type](JSON.parse(event.data)));
+            }
+        });
+        return source;
+    },
+    
     // Initialize the application
     init: function() {
         console.log('Countries App initialized');
@@ -4,12 +4,32 @@ document.addEventListener('DOMContentLoaded', function() {
     const filterSelect = document.getElementById('filterContinent');
     const searchBtn = document.getElementById('searchBtn');
     const countriesTableBody = document.getElementById('countriesTableBody');
+    const suggestionList = document.getElementById('countrySuggestions');
+    const pager = document.getElementById('countriesPager');
+    const prevPageBtn = document.getElementById('prevPage');
+    const nextPageBtn = document.getElementById('nextPage');
+    const resultSummary = document.getElementById('resultSummary');
     
-    let allCountries = [];
-    let filteredCountries = [];
+    // The requested page is rendered by the server; other pages and filters are queried on demand
+    const pageSize = pager ? parseInt(pager.dataset.pageSize, 10) : 50;
+    let currentPage = pager ? parseInt(pager.dataset.page, 10) : 0;
+    let totalPages = pager ? parseInt(pager.dataset.totalPages, 10) : 1;
+    let totalElements = pager ? parseInt(pager.dataset.totalElements, 10) : 0;
+    // The server-rendered page, so that deltas can be applied to it too
+    let filteredCountries = window.initialCountries || [];
+    let suggestTimer = null;
+    let suggestRequest = 0;
+    let queryRequest = 0;
     
-    // Load initial data
-    loadCountriesData();
+    updatePager(totalElements);
+    
+    // Apply committed changes to the page in place instead of downloading it again
+    window.countryChanges = App.followChanges(pager ? pager.dataset.changePosition : null, {
+        created: applyCreated,
+        updated: applyUpdated,
+        deleted: applyDeleted,
+        reset: () => loadPage(currentPage)
+    });
     
     // Event listeners
     if (searchBtn) {
@@ -22,51 +42,122 @@ document.addEventListener('DOMContentLoaded', function() {
                 performSearch();
             }
         });
+        searchInput.addEventListener('input', function() {
+            clearTimeout(suggestTimer);
+            suggestTimer = setTimeout(updateSuggestions, 150);
+        });
     }
     
     if (filterSelect) {
         filterSelect.addEventListener('change', performSearch);
     }
     
-    // Load countries data
-    async function loadCountriesData() {
-        try {
-            allCountries = await App.loadCountries();
-            filteredCountries = [...allCountries];
-            renderCountriesTable();
-        } catch (error) {
-            console.error('Failed to load countries:', error);
+    if (prevPageBtn) {
+        prevPageBtn.addEventListener('click', () => loadPage(currentPage - 1));
+    }
+    
+    if (nextPageBtn) {
+        nextPageBtn.addEventListener('click', () => loadPage(currentPage + 1));
+    }
+    
+    // Fill the datalist with server-ranked matches; stale responses are dropped
+    async function updateSuggestions() {
+        if (!suggestionList) return;
+        const query = searchInput.value.trim();
+        const request = ++suggestRequest;
+        if (!query) {
+            suggestionList.innerHTML = '';
+            return;
         }
+        const continent = filterSelect ? filterSelect.value : '';
+        const suggestions = await App.suggestCountries(query, continent);
+        if (request !== suggestRequest) return;
+        suggestionList.innerHTML = '';
+        suggestions.forEach(country => {
+            const option = document.createElement('option');
+            option.value = country.name;
+            option.label = country.continent;
+            suggestionList.appendChild(option);
+        });
     }
     
     // Perform search and filter
-    async function performSearch() {
-        const searchTerm = searchInput ? searchInput.value.trim() : '';
-        const selectedContinent = filterSelect ? filterSelect.value : '';
-        
-        try {
-            let results = [...allCountries];
-            
-            // Filter by continent if selected
-            if (selectedContinent) {
-                results = results.filter(country => 
-                    country.continent.toLowerCase() === selectedContinent.toLowerCase()
-                );
-            }
-            
-            // Search by name if provided
-            if (searchTerm) {
-                results = results.filter(country => 
-                    country.name.toLowerCase().includes(searchTerm.toLowerCase())
-                );
-            }
-            
-            filteredCountries = results;
+    function performSearch() {
+        loadPage(0);
+    }
+    
+    // Ask the server for one filtered page; responses to superseded requests are ignored
+    async function loadPage(page) {
+        if (page < 0 || (page > 0 && page >= totalPages)) return;
+        const request = ++queryRequest;
+        const result = await App.queryCountries({
+            name: searchInput ? searchInput.value.trim() : '',
+            continent: filterSelect ? filterSelect.value : '',
+            page: page,
+            size: pageSize
+        });
+        if (request !== queryRequest || !result) return;
+        currentPage = result.page;
+        totalPages = result.totalPages;
+        filteredCountries = result.countries;
+        renderCountriesTable();
+        updatePager(result.totalElements);
+        // Unfiltered pages can be reloaded or bookmarked, and are then rendered by the server
+        if (!(searchInput && searchInput.value.trim()) && !(filterSelect && filterSelect.value)) {
+            history.replaceState(null, '', currentPage > 0 ? `?page=${currentPage}` : window.location.pathname);
+        }
+    }
+    
+    // Whether a country belongs in the current result, mirroring the name prefix and continent filters
+    function matchesFilter(country) {
+        const name = searchInput ? searchInput.value.trim().toLowerCase() : '';
+        const continent = filterSelect ? filterSelect.value : '';
+        return (!name || country.name.toLowerCase().startsWith(name))
+            && (!continent || country.continent === continent);
+    }
+    
+    // New countries are counted; they are only shown when the page still has room for them
+    function applyCreated(country) {
+        if (!matchesFilter(country) || filteredCountries.some(existing => existing.id === country.id)) return;
+        if (filteredCountries.length < pageSize) {
+            filteredCountries.push(country);
             renderCountriesTable();
-            
-        } catch (error) {
-            console.error('Search failed:', error);
         }
+        updatePager(totalElements + 1);
+    }
+    
+    // Rows on other pages are left alone; the delta does not say whether they matched before
+    function applyUpdated(country) {
+        const index = filteredCountries.findIndex(existing => existing.id === country.id);
+        if (index < 0) return;
+        if (matchesFilter(country)) {
+            filteredCountries[index] = country;
+        } else {
+            filteredCountries.splice(index, 1);
+            totalElements--;
+        }
+        renderCountriesTable();
+        updatePager(totalElements);
+    }
+    
+    function applyDeleted(deleted) {
+        const index = filteredCountries.findIndex(existing => existing.id === deleted.id);
+        if (index < 0) return;
+        filteredCountries.splice(index, 1);
+        renderCountriesTable();
+        updatePager(totalElements - 1);
+    }
+    
+    function updatePager(total) {
+        totalElements = Math.max(0, total);
+        totalPages = Math.max(1, Math.ceil(totalElements / pageSize));
+        if (resultSummary) {
+            const first = totalElements === 0 ? 0 : currentPage * pageSize + 1;
+            const last = Math.min(totalElements, (currentPage + 1) * pageSize);
+            resultSummary.textContent = `Showing ${first}-${last} of ${App.formatNumber(totalElements)} countries`;
+        }
+        if (prevPageBtn) prevPageBtn.disabled = currentPage === 0;
+        if (nextPageBtn) nextPageBtn.disabled = currentPage + 1 >= totalPages;
     }
     
     // Render countries table
@@ -173,8 +264,10 @@ async function deleteCountry(id) {
     if (confirm('Are you sure you want to delete this country? This action cannot be undone.')) {
         try {
             await App.deleteCountry(id);
-            // Reload the page to refresh the table
-            window.location.reload();
+            // The change stream removes the row; without one the page is reloaded
+            if (!window.countryChanges) {
+                window.location.reload();
+            }
         } catch (error) {
             console.error('Failed to delete country:', error);
         }
@@ -321,7 +414,9 @@ async function updateCountryFromForm(id) {
     try {
         await App.updateCountry(id, countryData);
         closeModal();
-        window.location.reload();
+        if (!window.countryChanges) {
+            window.location.reload();
+        }
     } catch (error) {
         console.error('Failed to update country:', error);
     }
@@ -1,10 +1,9 @@
 // Statistics page JavaScript
+let continentChart = null;
+
 document.addEventListener('DOMContentLoaded', function() {
-    // Initialize charts when page loads
+    // The page is rendered with current statistics; later ones arrive on the change stream
     initializeCharts();
-    
-    // Load real-time statistics
-    loadRealTimeStats();
 });
 
 // Initialize charts
@@ -41,7 +40,7 @@ function createContinentChart(canvas) {
     const data = continentData.map(item => item[1]);
     const colors = continentData.map(item => getContinentColor(item[0]));
     
-    new Chart(ctx, {
+    continentChart = new Chart(ctx, {
         type: 'doughnut',
         data: {
             labels: labels,
@@ -71,7 +70,7 @@ function createContinentChart(canvas) {
                         label: function(context) {
                             const label = context.label || '';
                             const value = context.parsed;
-                            const percentage = ((value / totalCountries) * 100).toFixed(1);
+                            const percentage = ((value / window.totalCountries) * 100).toFixed(1);
                             return `${label}: ${value} (${percentage}%)`;
                         }
                     }
@@ -128,6 +127,31 @@ function updateStatisticsDisplay(stats) {
     if (dataPointsElement && stats.totalCountries !== undefined) {
         dataPointsElement.textContent = stats.totalCountries * 7;
     }
+    
+    if (stats.countriesByContinent) {
+        window.totalCountries = stats.totalCountries;
+        window.continents = stats.continents;
+        window.continentData = stats.countriesByContinent;
+        updateContinentDistribution(stats.countriesByContinent, stats.totalCountries);
+    }
+}
+
+// Redraw the chart and the distribution bars; continents the page was not rendered with wait for a reload
+function updateContinentDistribution(continentData, totalCountries) {
+    if (continentChart) {
+        continentChart.data.labels = continentData.map(item => item[0]);
+        continentChart.data.datasets[0].data = continentData.map(item => item[1]);
+        continentChart.data.datasets[0].backgroundColor = continentData.map(item => getContinentColor(item[0]));
+        continentChart.update();
+    }
+    const counts = new Map(continentData);
+    document.querySelectorAll('[data-continent]').forEach(row => {
+        const count = counts.get(row.dataset.continent) || 0;
+        const countElement = row.querySelector('[data-role="count"]');
+        const shareElement = row.querySelector('[data-role="share"]');
+        if (countElement) countElement.textContent = count;
+        if (shareElement) shareElement.style.width = `${totalCountries ? count * 100 / totalCountries : 0}%`;
+    });
 }
 
 // Refresh statistics
@@ -213,10 +237,16 @@ document.addEventListener('DOMContentLoaded', function() {
         exportBtn.addEventListener('click', exportStatistics);
     }
     
-    // Auto-refresh every 30 seconds
-    setInterval(() => {
-        loadRealTimeStats();
-    }, 30000);
+    // The server pushes new statistics after every change; poll every 30 seconds only without a stream
+    const changes = App.followChanges(window.changePosition, {
+        statistics: updateStatisticsDisplay,
+        reset: loadRealTimeStats
+    });
+    if (!changes) {
+        setInterval(() => {
+            loadRealTimeStats();
+        }, 30000);
+    }
 });
 
 // Add smooth animations for statistics cards
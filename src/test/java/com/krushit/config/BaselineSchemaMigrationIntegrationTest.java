@@ -0,0 +1,74 @@
+package com.krushit.config;
+
+import com.krushit.SpringBootWebAppApplication;
+import com.krushit.entity.Country;
+import com.krushit.service.CountryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database as the application left it before migrations: Hibernate's ddl-auto=update schema for the
+// original entity, with rows of its own
+class BaselineSchemaMigrationIntegrationTest {
+
+    private static final String URL = "jdbc:h2:mem:pre_migration_db;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void startOnTheOldSchema() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table countries (area float(53), id bigint not null auto_increment, population bigint, "
+                    + "continent varchar(50) not null, name varchar(100) not null, capital varchar(255), currency varchar(255), "
+                    + "language varchar(255), primary key (id)) engine=InnoDB");
+            statement.execute("alter table countries add constraint UK1pyiwrqimi3hnl3vtgsypj5r unique (name)");
+            statement.execute("insert into countries (name, continent, population) values ('Oldland', 'Legacy Region', 1000)");
+            statement.execute("insert into countries (name, continent, population) values ('Olderland', 'Legacy Region', 2000)");
+        }
+        context = new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .run("--spring.datasource.url=" + URL);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void theOldCountriesTableIsUpgradedInPlace() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        CountryService service = context.getBean(CountryService.class);
+
+        List<String> migrations = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("0", "1", "2", "3"), migrations);
+
+        // The existing catalog is adopted rather than topped up from the snapshot
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM countries", Integer.class));
+        Country oldland = service.getCountryByName("Oldland").orElseThrow();
+        assertEquals(0, oldland.getVersion());
+        assertEquals(1000L, oldland.getPopulation());
+
+        Country updated = service.updateCountry(oldland.getId(), new Country("Oldland", "Legacy Region", 1500L, null, null, null, null));
+        assertEquals(1, updated.getVersion());
+
+        // New ids continue after the AUTO_INCREMENT ones
+        long maxOldId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM countries", Long.class);
+        Country created = service.saveCountry(new Country("Newland", "Legacy Region"));
+        assertTrue(created.getId() > maxOldId);
+        assertTrue(service.deleteCountry(created.getId()));
+    }
+}
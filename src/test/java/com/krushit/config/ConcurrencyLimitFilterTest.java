@@ -0,0 +1,72 @@
+package com.krushit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConcurrencyLimitFilter newFilter() {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(100), meterRegistry);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        return filter;
+    }
+
+    @Test
+    void requestsBeyondTheLimitWaitThenGet503() throws Exception {
+        ConcurrencyLimitFilter filter = newFilter();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/countries/3"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            try {
+                                finish.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holder.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/countries/4"), rejected,
+                (request, response) -> fail("Should not get a permit"));
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("busy"));
+        assertEquals(1.0, meterRegistry.get("globalvault.concurrency.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("globalvault.concurrency.in.flight").gauge().value());
+
+        // Pages and static files are not limited
+        MockHttpServletResponse page = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/countries"), page, (request, response) -> {
+        });
+        assertEquals(200, page.getStatus());
+
+        finish.countDown();
+        holder.join(5000);
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/countries/4"), admitted, (request, response) -> {
+        });
+        assertEquals(200, admitted.getStatus());
+        assertEquals(0.0, meterRegistry.get("globalvault.concurrency.in.flight").gauge().value());
+    }
+}
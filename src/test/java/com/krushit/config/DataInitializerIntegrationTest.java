@@ -0,0 +1,87 @@
+package com.krushit.config;
+
+import com.krushit.entity.Country;
+import com.krushit.service.CountryService;
+import com.krushit.service.CountryStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A database of its own, so the seeded catalog is exactly the snapshot
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:seed_db;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class DataInitializerIntegrationTest {
+
+    @Autowired
+    private DataInitializer dataInitializer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryStatisticsService statisticsService;
+
+    @Test
+    void migratesTheSchemaAndSeedsTheSnapshotOnce() throws Exception {
+        List<String> migrations = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class);
+        assertEquals(List.of("1", "2", "3"), migrations);
+
+        String snapshotVersion = DataInitializer.versionOf(new ClassPathResource("seed/countries.csv").getContentAsByteArray());
+        assertEquals(snapshotVersion, appliedVersion());
+        assertEquals(60, countCountries());
+
+        long changes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM country_change_log", Long.class);
+        dataInitializer.run();
+        assertEquals(60, countCountries());
+        assertEquals(changes, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM country_change_log", Long.class));
+    }
+
+    @Test
+    void aChangedSnapshotAddsMissingCountriesButAnUnversionedCatalogIsAdopted() throws Exception {
+        Long tonga = jdbcTemplate.queryForObject("SELECT id FROM countries WHERE name = 'Tonga'", Long.class);
+        countryService.deleteCountry(tonga);
+
+        jdbcTemplate.update("UPDATE dataset_version SET version = 'previous' WHERE name = 'countries'");
+        dataInitializer.run();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM countries WHERE name = 'Tonga'", Integer.class));
+
+        Long samoa = jdbcTemplate.queryForObject("SELECT id FROM countries WHERE name = 'Samoa'", Long.class);
+        countryService.deleteCountry(samoa);
+        jdbcTemplate.update("DELETE FROM dataset_version");
+        dataInitializer.run();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM countries WHERE name = 'Samoa'", Integer.class));
+        assertNotNull(appliedVersion());
+
+        // The other tests expect the catalog as seeded
+        countryService.saveCountry(new Country("Samoa", "Australia"));
+    }
+
+    @Test
+    void startupWarmsStatisticsAndCachesFromTheSeededCatalog() {
+        assertEquals(countCountries(), statisticsService.getStatistics().getTotal().countries());
+        Map<String, Object> byName = countryService.getCacheStatistics().get("byName");
+        assertTrue((Long) byName.get("size") > 0);
+        long misses = (Long) byName.get("misses");
+        assertTrue(countryService.getCountryByName("Japan").isPresent());
+        assertEquals(misses, countryService.getCacheStatistics().get("byName").get("misses"));
+    }
+
+    private String appliedVersion() {
+        return jdbcTemplate.queryForList("SELECT version FROM dataset_version WHERE name = 'countries'", String.class)
+                .stream().findFirst().orElse(null);
+    }
+
+    private long countCountries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM countries", Long.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.krushit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    // 2 requests per second, bursts of 3
+    private RateLimitFilter newFilter() {
+        RateLimitFilter filter = new RateLimitFilter(2, 3, "X-API-Key", 1000, meterRegistry, clock::get);
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        return filter;
+    }
+
+    @Test
+    void clientsGetTheirBurstThen429UntilTheBucketRefills() throws Exception {
+        RateLimitFilter filter = newFilter();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send(filter, "/api/countries/1", "10.0.0.1", null).getStatus());
+        }
+        MockHttpServletResponse rejected = send(filter, "/api/countries/1", "10.0.0.1", null);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+
+        // Other clients have buckets of their own; an API key counts as its own client whatever the address
+        assertEquals(200, send(filter, "/api/countries/1", "10.0.0.2", null).getStatus());
+        assertEquals(200, send(filter, "/api/countries/1", "10.0.0.1", "partner-key").getStatus());
+
+        // One token every 500 ms
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(200, send(filter, "/api/countries/1", "10.0.0.1", null).getStatus());
+        assertEquals(429, send(filter, "/api/countries/1", "10.0.0.1", null).getStatus());
+
+        assertEquals(6.0, meterRegistry.get("globalvault.ratelimit.requests").tag("outcome", "allowed").counter().count());
+        assertEquals(2.0, meterRegistry.get("globalvault.ratelimit.requests").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void pagesAndTheChangeStreamAreNotLimited() throws Exception {
+        RateLimitFilter filter = newFilter();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send(filter, "/countries", "10.0.0.3", null).getStatus());
+            assertEquals(200, send(filter, "/api/countries/changes", "10.0.0.3", null).getStatus());
+        }
+        assertEquals(0.0, meterRegistry.get("globalvault.ratelimit.requests").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void concurrentRequestsNeverTakeMoreThanTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(TimeUnit.SECONDS.toNanos(1), 100, clock.get());
+        AtomicLong taken = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryTake(clock.get()) == 0) {
+                        taken.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+        assertEquals(100, taken.get());
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String uri, String address, String apiKey)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+        });
+        return response;
+    }
+}
@@ -0,0 +1,197 @@
+package com.krushit.config;
+
+import com.krushit.SpringBootWebAppApplication;
+import com.krushit.dto.CountryQuery;
+import com.krushit.entity.Country;
+import com.krushit.service.CountryChangeEvent;
+import com.krushit.service.CountryService;
+import com.krushit.service.CountryStatisticsService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// One instance routed across two embedded databases. Replication is simulated: the replica gets its
+// schema and sample data from a plain instance of its own and otherwise only changes when the test says so.
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext replicaSeeder;
+    private static ConfigurableApplicationContext routed;
+
+    @BeforeAll
+    static void startInstances() {
+        // Arguments rather than default properties, which the test application.properties would override
+        replicaSeeder = new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .run("--spring.datasource.url=" + REPLICA_URL);
+        routed = new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .run("--spring.datasource.url=" + PRIMARY_URL,
+                        "--globalvault.datasource.replica.url=" + REPLICA_URL,
+                        "--globalvault.datasource.replica.stickiness=1s",
+                        "--globalvault.datasource.replica.health-check-interval=100ms");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (routed != null) {
+            routed.close();
+        }
+        if (replicaSeeder != null) {
+            replicaSeeder.close();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() throws Exception {
+        CountryService service = routed.getBean(CountryService.class);
+        JdbcTemplate replica = replicaSeeder.getBean(JdbcTemplate.class);
+        // Outside a transaction, so on the primary
+        JdbcTemplate primary = routed.getBean(JdbcTemplate.class);
+
+        replica.update("UPDATE countries SET population = 42 WHERE name = 'Japan'");
+        // Seeding is a write too, so reads only reach the replica once its stickiness window has passed
+        awaitTrue(() -> findByName(service, "Japan").getContent().get(0).getPopulation() == 42L);
+
+        service.saveCountry(new Country("Replicaland", "Europe"));
+        assertEquals(1, countByName(primary, "Replicaland"));
+        assertEquals(0, countByName(replica, "Replicaland"));
+
+        // The writer reads its own change from the primary until the stickiness window has passed
+        assertEquals(1, findByName(service, "Replicaland").getTotalElements());
+        // Everyone else keeps reading the replica, even once the change has been replayed to them
+        assertEquals(0, onAnotherThread(() -> {
+            routed.publishEvent(CountryChangeEvent.remote(CountryChangeEvent.Type.CREATED, 0L, null, null));
+            return findByName(service, "Replicaland").getTotalElements();
+        }));
+        assertNotEquals(42L, findByName(service, "Japan").getContent().get(0).getPopulation());
+        awaitTrue(() -> findByName(service, "Replicaland").getTotalElements() == 0);
+        assertEquals(42L, findByName(service, "Japan").getContent().get(0).getPopulation());
+    }
+
+    // Open-in-view shares one EntityManager across the request's read-only duplicate check and the insert
+    @Test
+    @Order(2)
+    void requestThatReadsBeforeWritingStillWritesToThePrimary() throws Exception {
+        JdbcTemplate replica = replicaSeeder.getBean(JdbcTemplate.class);
+        JdbcTemplate primary = routed.getBean(JdbcTemplate.class);
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + routed.getEnvironment().getProperty("local.server.port") + "/api/countries"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Postreplica\",\"continent\":\"Europe\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(201, response.statusCode(), response.body());
+        assertEquals(1, countByName(primary, "Postreplica"));
+        assertEquals(0, countByName(replica, "Postreplica"));
+
+        // The client that wrote reads its change back by returning the cookie; a client without it reads the replica
+        String lastWrite = response.headers().firstValue("Set-Cookie").orElseThrow().split(";")[0];
+        assertTrue(lastWrite.startsWith(ReadYourWritesFilter.COOKIE + "="), lastWrite);
+        assertTrue(query("Postreplica", lastWrite).contains("\"totalElements\":1"));
+        assertTrue(query("Postreplica", null).contains("\"totalElements\":0"));
+    }
+
+    @Test
+    @Order(3)
+    void staleStatisticsAreRebuiltFromThePrimary() throws Exception {
+        CountryStatisticsService statistics = routed.getBean(CountryStatisticsService.class);
+        JdbcTemplate primary = routed.getBean(JdbcTemplate.class);
+        TransactionTemplate readOnly = new TransactionTemplate(routed.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        long inEurope = primary.queryForObject("SELECT COUNT(*) FROM countries WHERE continent = 'Europe'", Long.class);
+
+        // The replica has neither of the previous tests' countries, and this thread reads from it
+        long rebuilt = onAnotherThread(() -> {
+            routed.publishEvent(CountryChangeEvent.remote(CountryChangeEvent.Type.CREATED, 0L, null, null));
+            return readOnly.execute(status -> statistics.getStatistics().getByContinent().get("Europe").countries());
+        });
+        assertEquals(inEurope, rebuilt);
+    }
+
+    @Test
+    @Order(4)
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() {
+        CountryService service = routed.getBean(CountryService.class);
+        ReplicaRoutingPolicy policy = routed.getBean(ReplicaRoutingPolicy.class);
+        // Back on the replica once the previous test's write is out of the stickiness window
+        awaitTrue(() -> findByName(service, "Postreplica").getTotalElements() == 0);
+        assertTrue(policy.isReplicaAvailable());
+
+        routed.getBean("replicaDataSource", HikariDataSource.class).close();
+
+        Page<Country> japan = findByName(service, "Japan");
+        assertNotEquals(42L, japan.getContent().get(0).getPopulation());
+        assertFalse(policy.isReplicaAvailable());
+        assertEquals(1, findByName(service, "Replicaland").getTotalElements());
+    }
+
+    private static String query(String name, String cookie) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                + routed.getEnvironment().getProperty("local.server.port") + "/api/countries/query?name=" + name));
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return response.body();
+    }
+
+    private static <T> T onAnotherThread(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(task).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Page<Country> findByName(CountryService service, String name) {
+        return service.queryCountries(new CountryQuery(name, null, null, null, null, null, null, null), PageRequest.of(0, 10));
+    }
+
+    private static int countByName(JdbcTemplate jdbcTemplate, String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM countries WHERE name = ?", Integer.class, name);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting");
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.krushit.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.krushit.dto.CountryField;
+import com.krushit.entity.Country;
+import com.krushit.service.CountryService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compares the old entity-based export with the projected writers: bytes on the wire and bytes
+ * allocated by the request thread. Excluded from the normal build; run it with
+ * {@code mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=CountryListPayloadBenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:payload_benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class CountryListPayloadBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    @BeforeAll
+    void seed() {
+        Map<Long, Country> chunk = new LinkedHashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            chunk.put((long) i, new Country("Benchmark Country " + i, "Continent " + (i % 7), 1_000_000L + i,
+                    "Capital " + i, 1000.5 + i, "BMC", "Benchmarkish"));
+            if (chunk.size() == 1000) {
+                countryService.insertNewCountries(chunk);
+                chunk.clear();
+            }
+        }
+    }
+
+    @Test
+    void compareListRepresentations() {
+        List<CountryField> sparse = CountryField.parse("id,name,population");
+        Map<String, Export> exports = new LinkedHashMap<>();
+        exports.put("entities + Jackson (before)", this::writeEntities);
+        exports.put("projection, objects", out -> writeProjection(out, CountryField.ALL, CountryJsonWriter.Layout.OBJECTS));
+        exports.put("projection, compact", out -> writeProjection(out, CountryField.ALL, CountryJsonWriter.Layout.COMPACT));
+        exports.put("fields=id,name,population", out -> writeProjection(out, sparse, CountryJsonWriter.Layout.OBJECTS));
+        exports.put("fields=id,name,population compact", out -> writeProjection(out, sparse, CountryJsonWriter.Layout.COMPACT));
+
+        System.out.printf("%-38s %12s %14s %10s%n", "representation", "payload (B)", "allocated (B)", "time (ms)");
+        exports.forEach((name, export) -> {
+            long[] result = measure(export);
+            System.out.printf("%-38s %12d %14d %10.1f%n", name, result[0], result[1], result[2] / 1e6);
+        });
+    }
+
+    // Best of several rounds after a warm-up, so JIT and connection setup do not dominate
+    private long[] measure(Export export) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] best = {0, Long.MAX_VALUE, Long.MAX_VALUE};
+        for (int round = 0; round <= ROUNDS; round++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4 << 20);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long started = System.nanoTime();
+            try {
+                export.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            long elapsed = System.nanoTime() - started;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            if (round > 0) {
+                best[0] = out.size();
+                best[1] = Math.min(best[1], allocated);
+                best[2] = Math.min(best[2], elapsed);
+            }
+        }
+        return best;
+    }
+
+    // What GET /api/countries did before: managed entities, detached one by one, bound by Jackson
+    private void writeEntities(OutputStream out) {
+        ObjectWriter writer = objectMapper.writerFor(Country.class);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+                 Stream<Country> countries = entityManager
+                         .createQuery("SELECT c FROM Country c ORDER BY c.continent, c.name, c.id", Country.class)
+                         .getResultStream()) {
+                generator.writeStartArray();
+                countries.forEach(country -> {
+                    try {
+                        writer.writeValue(generator, country);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    entityManager.detach(country);
+                });
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeProjection(OutputStream out, List<CountryField> fields, CountryJsonWriter.Layout layout)
+            throws IOException {
+        CountryJsonWriter writer = new CountryJsonWriter(fields, layout);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writer.writeStart(generator);
+            countryService.streamAllCountries(fields, row -> {
+                try {
+                    writer.writeRow(generator, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.writeEnd(generator);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.krushit.controller;
+
+import com.krushit.dto.CountryQuery;
+import com.krushit.entity.Country;
+import com.krushit.service.CountryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.compression.enabled=true",
+        "server.compression.min-response-size=1KB"
+})
+class CountryPagesIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryTableFragments countryTable;
+
+    @Test
+    void renderedPagesAreReusedUntilTheCatalogChanges() {
+        CountryTableFragments.RenderedPage first = countryTable.page(0, 50);
+        assertSame(first, countryTable.page(0, 50));
+
+        countryService.saveCountry(new Country("Aaa Pageland", "Page Region"));
+
+        CountryTableFragments.RenderedPage changed = countryTable.page(0, 50);
+        assertNotSame(first, changed);
+        assertEquals(first.totalElements() + 1, changed.totalElements());
+    }
+
+    @Test
+    void pagesAreRenderedOnTheServer() {
+        long total = countryService.queryCountries(CountryQuery.unfiltered(), PageRequest.of(0, 1)).getTotalElements();
+        int lastPage = (int) ((total - 1) / 50);
+
+        String html = webTestClient.get().uri("/countries?page={page}", lastPage).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertNotNull(html);
+        assertTrue(html.contains("data-page=\"" + lastPage + "\""));
+        assertTrue(html.contains("window.initialCountries = ["));
+
+        String pastTheEnd = webTestClient.get().uri("/countries?page=9999").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertNotNull(pastTheEnd);
+        assertTrue(pastTheEnd.contains("data-page=\"" + lastPage + "\""));
+        // Every page number past the end shares the last page's cache entry
+        assertSame(countryTable.page(lastPage, 50), countryTable.page(9999, 50));
+        assertSame(countryTable.page(0, 50), countryTable.page(-1, 50));
+    }
+
+    // Sent with the JDK client, which passes Accept-Encoding through and does not decode the body
+    @Test
+    void pagesAreCompressed() throws Exception {
+        HttpResponse<byte[]> page = get("/countries", "gzip");
+        assertEquals(200, page.statusCode());
+        assertEquals("gzip", page.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
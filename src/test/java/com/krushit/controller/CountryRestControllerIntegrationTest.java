@@ -0,0 +1,184 @@
+package com.krushit.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krushit.entity.Country;
+import com.krushit.service.CountryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CountryRestControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void keysetPagesWalkTheWholeCatalogInOrder() throws Exception {
+        List<Long> expected = countryService.getAllCountries().stream().map(Country::getId).toList();
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String uri = cursor == null ? "/api/countries?limit=7" : "/api/countries?limit=7&after=" + cursor;
+            JsonNode page = getJson(uri);
+            page.get("countries").forEach(country -> paged.add(country.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertTrue(++pages <= expected.size() / 7 + 1, "The cursor does not advance");
+        } while (cursor != null);
+
+        assertEquals(expected, paged);
+        // A page that ends exactly at the last country carries no cursor either
+        JsonNode exact = getJson("/api/countries?limit=" + expected.size());
+        assertEquals(expected.size(), exact.get("countries").size());
+        assertTrue(exact.get("nextCursor").isNull());
+    }
+
+    @Test
+    void aMalformedCursorIsABadRequest() {
+        webTestClient.get().uri("/api/countries?limit=5&after=not-a-cursor").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").value(message -> assertTrue(((String) message).startsWith("Invalid cursor")));
+        webTestClient.get().uri("/api/countries?after=bm8gc2VwYXJhdG9y").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void theStreamedExportsMatchTheFullList() throws Exception {
+        List<Long> expected = countryService.getAllCountries().stream().map(Country::getId).toList();
+
+        List<Long> json = new ArrayList<>();
+        getJson("/api/countries").forEach(country -> json.add(country.get("id").asLong()));
+        assertEquals(expected, json);
+
+        String ndjson = webTestClient.get().uri("/api/countries").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertNotNull(ndjson);
+        List<Long> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertEquals(expected, lines);
+    }
+
+    @Test
+    void aRecreatedCountryDoesNotMatchTheDeletedOnesETag() {
+        Country first = create(new Country("Etagia", "Tag Region", 100L, null, null, null, null));
+        String firstTag = webTestClient.get().uri("/api/countries/name/Etagia").exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+        webTestClient.delete().uri("/api/countries/{id}", first.getId()).exchange().expectStatus().isOk();
+
+        Country second = create(new Country("Etagia", "Other Tag Region", 200L, null, null, null, null));
+
+        webTestClient.get().uri("/api/countries/name/Etagia").header(HttpHeaders.IF_NONE_MATCH, firstTag).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.continent").isEqualTo("Other Tag Region");
+        webTestClient.put().uri("/api/countries/{id}", second.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, firstTag)
+                .bodyValue(new Country("Etagia", "Stale Region"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        String secondTag = webTestClient.get().uri("/api/countries/{id}", second.getId()).exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+        assertNotEquals(firstTag, secondTag);
+        webTestClient.get().uri("/api/countries/name/Etagia").header(HttpHeaders.IF_NONE_MATCH, secondTag).exchange()
+                .expectStatus().isNotModified();
+        webTestClient.put().uri("/api/countries/{id}", second.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, secondTag)
+                .bodyValue(new Country("Etagia", "Current Region"))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/countries/{id}", second.getId()).exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void aCountryWithoutANameIsABadRequest() {
+        webTestClient.post().uri("/api/countries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"continent\":\"Europe\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.post().uri("/api/countries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"X\",\"continent\":\"Europe\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void aStreamingImportReportsEachRejectedRow() {
+        String csv = "name,continent,population,capital\n"
+                + "Streamland,Stream Region,100,\n"
+                + "Japan,Asia,1,\n"
+                + ",Stream Region,,\n"
+                + "Streamland Minor,Stream Region,lots,\n"
+                + "Overstreamia,Stream Region,1," + "x".repeat(300) + "\n";
+
+        webTestClient.post().uri("/api/countries/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.processed").isEqualTo(5)
+                .jsonPath("$.created").isEqualTo(1)
+                .jsonPath("$.duplicates").isEqualTo(1)
+                .jsonPath("$.invalid").isEqualTo(2)
+                .jsonPath("$.failed").isEqualTo(1)
+                .jsonPath("$.errors.length()").isEqualTo(3)
+                .jsonPath("$.errors[0].row").isEqualTo(2)
+                .jsonPath("$.errors[0].status").isEqualTo("INVALID")
+                .jsonPath("$.errors[0].message").isEqualTo("Country name is required")
+                .jsonPath("$.errors[1].row").isEqualTo(3)
+                .jsonPath("$.errors[1].message").value(message -> assertTrue(((String) message).startsWith("Invalid number")))
+                .jsonPath("$.errors[2].row").isEqualTo(4)
+                .jsonPath("$.errors[2].name").isEqualTo("Overstreamia")
+                .jsonPath("$.errors[2].status").isEqualTo("FAILED")
+                .jsonPath("$.errorsOmitted").isEqualTo(0);
+
+        webTestClient.get().uri("/api/countries/name/Streamland").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/countries/name/Overstreamia").exchange().expectStatus().isNotFound();
+    }
+
+    private JsonNode getJson(String uri) throws Exception {
+        byte[] body = webTestClient.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        assertNotNull(body);
+        return objectMapper.readTree(body);
+    }
+
+    private Country create(Country country) {
+        Country created = webTestClient.post().uri("/api/countries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(country)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Country.class).returnResult().getResponseBody();
+        assertNotNull(created);
+        return created;
+    }
+}
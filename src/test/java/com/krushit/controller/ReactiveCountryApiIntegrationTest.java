@@ -0,0 +1,160 @@
+package com.krushit.controller;
+
+import com.krushit.entity.Country;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The JDBC and R2DBC URLs name the same embedded database, so streamed reads see JPA's writes
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive_db;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "globalvault.r2dbc.url=r2dbc:h2:mem:///reactive_db?options=MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "globalvault.r2dbc.username=sa",
+        "globalvault.r2dbc.password=",
+        "globalvault.notifications.publisher=log"
+})
+@ActiveProfiles("reactive")
+class ReactiveCountryApiIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void listsStreamAsJsonOrNdjsonAndHonorTheCatalogETag() {
+        List<Map<String, Object>> countries = webTestClient.get().uri("/api/countries?fields=name,continent")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBodyList(new ParameterizedTypeReference<Map<String, Object>>() {
+                })
+                .returnResult().getResponseBody();
+        assertNotNull(countries);
+        assertFalse(countries.isEmpty());
+        assertEquals(2, countries.get(0).size());
+
+        String ndjson = webTestClient.get().uri("/api/countries?fields=name")
+                .accept(CountryResponses.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertNotNull(ndjson);
+        assertEquals(countries.size(), ndjson.lines().count());
+        assertTrue(ndjson.lines().allMatch(line -> line.startsWith("{\"name\":")));
+
+        String eTag = webTestClient.get().uri("/api/countries").exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+        webTestClient.get().uri("/api/countries").header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get().uri("/api/countries?fields=bogus").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").exists();
+    }
+
+    @Test
+    void keysetPagesWalkTheWholeCatalog() {
+        int total = 0;
+        String cursor = null;
+        do {
+            Map<?, ?> page = webTestClient.get()
+                    .uri(cursor == null ? "/api/countries?limit=7" : "/api/countries?limit=7&after=" + cursor)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(Map.class).returnResult().getResponseBody();
+            assertNotNull(page);
+            total += ((List<?>) page.get("countries")).size();
+            cursor = (String) page.get("nextCursor");
+        } while (cursor != null);
+
+        Integer count = webTestClient.get().uri("/api/countries?fields=id").exchange()
+                .expectBodyList(Map.class).returnResult().getResponseBody().size();
+        assertEquals(count, total);
+
+        webTestClient.get().uri("/api/countries?limit=5&after=not-a-cursor").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void writesGoThroughTheServiceAndShowUpInStreamedReads() {
+        Country created = webTestClient.post().uri("/api/countries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Country("Fluxonia", "Reactive Region", 9_000_000_000L, "Mono City", 1.0, "FLX", "Fluxish"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Country.class).returnResult().getResponseBody();
+        assertNotNull(created);
+
+        String eTag = webTestClient.get().uri("/api/countries/{id}", created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("Fluxonia")
+                .returnResult().getResponseHeaders().getETag();
+        webTestClient.get().uri("/api/countries/{id}", created.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get().uri("/api/countries/population/greater-than/8000000000?fields=name").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].name").isEqualTo("Fluxonia");
+
+        webTestClient.put().uri("/api/countries/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"99\"")
+                .bodyValue(new Country("Fluxonia", "Other Region"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.put().uri("/api/countries/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(new Country("Fluxonia", "Other Region"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.continent").isEqualTo("Other Region");
+
+        webTestClient.post().uri("/api/countries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Country("Fluxonia", "Reactive Region"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Country with name 'Fluxonia' already exists");
+        webTestClient.post().uri("/api/countries")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"continent\":\"Reactive Region\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.delete().uri("/api/countries/{id}", created.getId()).exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/countries/{id}", created.getId()).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void streamedImportsAndBlockingPagesStillWork() {
+        webTestClient.post().uri("/api/countries/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue("name,continent,population\nImportia,Reactive Region,12\nImportia,Reactive Region,13\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.error").doesNotExist();
+        webTestClient.get().uri("/api/countries/name/Importia").exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/countries").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).value(html -> assertTrue(html.contains("<html")));
+        webTestClient.get().uri("/api/notifications/status").exchange()
+                .expectStatus().isOk();
+    }
+}
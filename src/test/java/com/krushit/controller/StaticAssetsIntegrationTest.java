@@ -0,0 +1,49 @@
+package com.krushit.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Server compression off, so a gzipped script can only be the .gz written by the build
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.compression.enabled=false",
+        "spring.web.resources.chain.enabled=true",
+        "spring.web.resources.chain.compressed=true"
+})
+class StaticAssetsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void scriptsAreServedPrecompressed() throws Exception {
+        byte[] precompressed = new ClassPathResource("static/js/countries.js.gz").getContentAsByteArray();
+        byte[] original = new ClassPathResource("static/js/countries.js").getContentAsByteArray();
+
+        HttpResponse<byte[]> gzipped = get("/js/countries.js", "gzip");
+        assertEquals(200, gzipped.statusCode());
+        assertEquals("gzip", gzipped.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertArrayEquals(precompressed, gzipped.body());
+
+        HttpResponse<byte[]> plain = get("/js/countries.js", "identity");
+        assertTrue(plain.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertArrayEquals(original, plain.body());
+    }
+
+    // The JDK client passes Accept-Encoding through and does not decode the body
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,107 @@
+package com.krushit.service;
+
+import com.krushit.dto.GroupAggregate;
+import com.krushit.dto.RankedCountry;
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CountryAnalyticsIntegrationTest {
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private CountryAnalytics analytics;
+
+    @Test
+    void populationGreaterThanMatchesTheQuery() {
+        countryService.saveCountry(new Country("Vellmora", "Analytics Region", 3_000_000_000L, null, 10.0, "VEL", "Vellish"));
+
+        assertEquals(ids(countryRepository.findCountriesWithPopulationGreaterThan(1_000_000L)),
+                ids(countryService.getCountriesWithPopulationGreaterThan(1_000_000L)));
+    }
+
+    @Test
+    void ranksAndPercentilesFollowUpdatesAndDeletes() {
+        Country saved = countryService.saveCountry(new Country("Tessaly", "Analytics Region", 9_000_000_000L, null, 5.0, "TES", "Tessan"));
+
+        assertEquals(saved.getId(), top(CountryAnalytics.Metric.POPULATION, false).country().getId());
+        assertEquals(saved.getId(), top(CountryAnalytics.Metric.DENSITY, false).country().getId());
+        assertEquals(9_000_000_000d, countryService.getPercentiles(CountryAnalytics.Metric.POPULATION, List.of(100.0)).get(100.0));
+
+        countryService.updateCountry(saved.getId(), new Country("Tessaly", "Analytics Region", 1L, null, 5.0, "TES", "Tessan"));
+
+        assertEquals(saved.getId(), top(CountryAnalytics.Metric.POPULATION, true).country().getId());
+        assertNotEquals(saved.getId(), top(CountryAnalytics.Metric.POPULATION, false).country().getId());
+
+        countryService.deleteCountry(saved.getId());
+
+        assertNotEquals(saved.getId(), top(CountryAnalytics.Metric.POPULATION, true).country().getId());
+        assertEquals(populations().size(), countryService.countCountriesWith(CountryAnalytics.Metric.POPULATION));
+    }
+
+    @Test
+    void percentilesUseNearestRank() {
+        List<Long> populations = populations();
+        Map<Double, Double> percentiles = countryService.getPercentiles(CountryAnalytics.Metric.POPULATION, List.of(0.0, 50.0, 90.0));
+
+        assertEquals(populations.get(0).doubleValue(), percentiles.get(0.0));
+        assertEquals(populations.get((int) Math.ceil(0.5 * populations.size()) - 1).doubleValue(), percentiles.get(50.0));
+        assertEquals(populations.get((int) Math.ceil(0.9 * populations.size()) - 1).doubleValue(), percentiles.get(90.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> countryService.getPercentiles(CountryAnalytics.Metric.POPULATION, List.of(101.0)));
+    }
+
+    @Test
+    void groupByMatchesTheRowsAndTheParallelPath() {
+        countryService.saveCountry(new Country("Orrindel", "Grouping Region", 300L, null, 3.0, "ORR", "Orrish"));
+        countryService.saveCountry(new Country("Pashtura", "Grouping Region", 100L, null, null, "ORR", "Orrish"));
+
+        List<GroupAggregate> sequential = countryService.aggregateCountries(CountryAnalytics.Dimension.CONTINENT, CountryAnalytics.Metric.POPULATION);
+        GroupAggregate group = sequential.stream().filter(g -> "Grouping Region".equals(g.key())).findFirst().orElseThrow();
+        assertEquals(2, group.countries());
+        assertEquals(400, group.sum());
+        assertEquals(200.0, group.average());
+        assertEquals(100.0, group.min());
+        assertEquals(300.0, group.max());
+        assertEquals(countryRepository.count(), sequential.stream().mapToLong(GroupAggregate::countries).sum());
+
+        Object threshold = ReflectionTestUtils.getField(analytics, "parallelThreshold");
+        ReflectionTestUtils.setField(analytics, "parallelThreshold", 1);
+        try {
+            assertEquals(sequential, countryService.aggregateCountries(CountryAnalytics.Dimension.CONTINENT, CountryAnalytics.Metric.POPULATION));
+        } finally {
+            ReflectionTestUtils.setField(analytics, "parallelThreshold", threshold);
+        }
+    }
+
+    private RankedCountry top(CountryAnalytics.Metric metric, boolean ascending) {
+        return countryService.getTopCountries(metric, 1, ascending).get(0);
+    }
+
+    private List<Long> populations() {
+        return countryRepository.findAll().stream()
+                .map(Country::getPopulation)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    private static List<Long> ids(List<Country> countries) {
+        return countries.stream().map(Country::getId).toList();
+    }
+}
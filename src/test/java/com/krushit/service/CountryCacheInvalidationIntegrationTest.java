@@ -0,0 +1,115 @@
+package com.krushit.service;
+
+import com.krushit.SpringBootWebAppApplication;
+import com.krushit.entity.Country;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two application instances sharing one database, as two replicas of the deployment would
+class CountryCacheInvalidationIntegrationTest {
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startInstances() {
+        first = startInstance();
+        second = startInstance();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startInstance() {
+        return new SpringApplicationBuilder(SpringBootWebAppApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:cluster_db;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "globalvault.cache.invalidation.mode=changelog",
+                        "globalvault.cache.invalidation.poll-interval=100ms")
+                .run();
+    }
+
+    @Test
+    void updateOnOneInstanceIsVisibleOnTheOtherWithinThePollInterval() {
+        CountryService writer = first.getBean(CountryService.class);
+        CountryService reader = second.getBean(CountryService.class);
+
+        Country japan = reader.getCountryByName("Japan").orElseThrow();
+        int japanInAsia = reader.getCountriesByContinent("Asia").size();
+
+        Country details = new Country(japan);
+        details.setPopulation(japan.getPopulation() + 1);
+        writer.updateCountry(japan.getId(), details);
+
+        awaitTrue(() -> reader.getCountryByName("Japan").orElseThrow().getPopulation() == japan.getPopulation() + 1);
+        assertEquals(japan.getPopulation() + 1, reader.getCountryById(japan.getId()).orElseThrow().getPopulation());
+        assertEquals(japanInAsia, reader.getCountriesByContinent("Asia").size());
+    }
+
+    @Test
+    void createAndDeleteOnOneInstanceReplaceNegativeAndPositiveEntriesOnTheOther() {
+        CountryService writer = first.getBean(CountryService.class);
+        CountryService reader = second.getBean(CountryService.class);
+
+        assertTrue(reader.getCountryByName("Atlantis").isEmpty());
+        assertFalse(reader.getAllContinents().contains("Atlantic Ocean"));
+
+        Country atlantis = writer.saveCountry(new Country("Atlantis", "Atlantic Ocean"));
+        awaitTrue(() -> reader.getCountryByName("Atlantis").isPresent());
+        assertTrue(reader.getAllContinents().contains("Atlantic Ocean"));
+
+        writer.deleteCountry(atlantis.getId());
+        awaitTrue(() -> reader.getCountryByName("Atlantis").isEmpty());
+        assertTrue(reader.getCountryById(atlantis.getId()).isEmpty());
+        assertFalse(reader.getAllContinents().contains("Atlantic Ocean"));
+    }
+
+    @Test
+    void unchangedEntriesKeepBeingServedFromTheCache() {
+        CountryService reader = second.getBean(CountryService.class);
+        reader.getCountryByName("France");
+        long hitsBefore = hits(reader);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(reader.getCountryByName("France").isPresent());
+        }
+
+        assertEquals(hitsBefore + 10, hits(reader));
+    }
+
+    private static long hits(CountryService service) {
+        Map<String, Object> byName = service.getCacheStatistics().get("byName");
+        return (Long) byName.get("hits");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting");
+            }
+        }
+    }
+}
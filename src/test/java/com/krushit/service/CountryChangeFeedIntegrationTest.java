@@ -0,0 +1,105 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "globalvault.changes.buffer-size=8")
+class CountryChangeFeedIntegrationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryChangeFeed changeFeed;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Test
+    void followersSeeCommittedDeltasThenCoalescedStatistics() {
+        CompletableFuture<List<CountryChangeFeed.Delta>> received = changeFeed.follow(null)
+                .filter(delta -> delta.kind() == CountryChangeFeed.Kind.STATISTICS
+                        || (delta.countryId() != null && delta.country() != null && delta.country().getName().startsWith("Feedia"))
+                        || delta.kind() == CountryChangeFeed.Kind.DELETED)
+                .take(4)
+                .collectList()
+                .toFuture();
+
+        Country saved = countryService.saveCountry(new Country("Feedia", "Feed Region", 10L, null, null, null, null));
+        countryService.updateCountry(saved.getId(), new Country("Feedia Nova", "Feed Region"));
+        countryService.deleteCountry(saved.getId());
+
+        List<CountryChangeFeed.Delta> deltas = received.orTimeout(TIMEOUT.toSeconds(), TimeUnit.SECONDS).join();
+        assertEquals(List.of(CountryChangeFeed.Kind.CREATED, CountryChangeFeed.Kind.UPDATED,
+                        CountryChangeFeed.Kind.DELETED, CountryChangeFeed.Kind.STATISTICS),
+                deltas.stream().map(CountryChangeFeed.Delta::kind).toList());
+        assertEquals(10L, deltas.get(0).country().getPopulation());
+        assertEquals("Feedia Nova", deltas.get(1).country().getName());
+        assertEquals(saved.getId(), deltas.get(2).countryId());
+        assertNull(deltas.get(3).statistics().getByContinent().get("Feed Region"));
+    }
+
+    @Test
+    void reconnectingClientsResumeAfterTheirLastDelta() {
+        String position = changeFeed.position();
+        Country first = countryService.saveCountry(new Country("Resumia", "Feed Region"));
+        Country second = countryService.saveCountry(new Country("Resumia Minor", "Feed Region"));
+
+        List<CountryChangeFeed.Delta> replayed = changeFeed.follow(position)
+                .filter(delta -> delta.kind() == CountryChangeFeed.Kind.CREATED)
+                .take(2)
+                .collectList()
+                .block(TIMEOUT);
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                replayed.stream().map(CountryChangeFeed.Delta::countryId).toList());
+    }
+
+    @Test
+    void clientsTooFarBehindOrFromAnotherProcessAreReset() {
+        String position = changeFeed.position();
+        for (int i = 0; i < 10; i++) {
+            countryService.saveCountry(new Country("Evictia " + i, "Feed Region"));
+        }
+
+        assertEquals(CountryChangeFeed.Kind.RESET, changeFeed.follow(position).blockFirst(TIMEOUT).kind());
+        assertEquals(CountryChangeFeed.Kind.RESET, changeFeed.follow("restarted-42").blockFirst(TIMEOUT).kind());
+    }
+
+    @Test
+    void streamsServerSentEventsOverHttp() throws Exception {
+        String position = changeFeed.position();
+        Country saved = countryService.saveCountry(new Country("Streamia", "Feed Region"));
+
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/countries/changes?after=" + position)).build(),
+                HttpResponse.BodyHandlers.ofLines());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+        try (Stream<String> lines = response.body()) {
+            List<String> event = lines.dropWhile(line -> !line.startsWith("id:")).limit(3).toList();
+            assertEquals("event:created", event.get(1));
+            assertTrue(event.get(2).startsWith("data:{"));
+            assertTrue(event.get(2).contains("\"id\":" + saved.getId()));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.krushit.service;
+
+import com.krushit.dto.BulkImportReport;
+import com.krushit.dto.ImportRowResult;
+import com.krushit.entity.Country;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CountryImportIntegrationTest {
+
+    @Autowired
+    private CountryImportService importService;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void duplicatesWithinTheChunkAndAgainstExistingRowsAreSkipped() {
+        BulkImportReport report = importService.importCountries(List.of(
+                new Country("Importia", "Import Region"),
+                new Country("IMPORTIA", "Import Region"),
+                new Country("Japan", "Asia"),
+                new Country("Importia Minor", "Import Region")));
+
+        assertEquals(List.of(ImportRowResult.Status.CREATED, ImportRowResult.Status.DUPLICATE,
+                ImportRowResult.Status.DUPLICATE, ImportRowResult.Status.CREATED), statuses(report));
+        assertEquals(report.getResults().get(0).id(), countryService.getCountryByName("Importia").orElseThrow().getId());
+        assertEquals("Asia", countryService.getCountryByName("Japan").orElseThrow().getContinent());
+    }
+
+    @Test
+    void aChunkIsInsertedInJdbcBatches() {
+        List<Country> countries = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            countries.add(new Country("Batchland " + i, "Batch Region"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long insertsBefore = statistics.getEntityInsertCount();
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        BulkImportReport report = importService.importCountries(countries);
+
+        assertEquals(40, report.getCount(ImportRowResult.Status.CREATED));
+        assertEquals(40, statistics.getEntityInsertCount() - insertsBefore);
+        // One prepared INSERT for the batch, plus the name check and id allocation
+        assertTrue(statistics.getPrepareStatementCount() - statementsBefore < 10);
+    }
+
+    @Test
+    void aRowBreakingAnotherConstraintFailsAlone() {
+        Country tooLongCapital = new Country("Overlongia", "Import Region");
+        tooLongCapital.setCapital("x".repeat(300));
+
+        BulkImportReport report = importService.importCountries(List.of(
+                new Country("Beforeland", "Import Region"),
+                tooLongCapital,
+                new Country("Afterland", "Import Region")));
+
+        assertEquals(List.of(ImportRowResult.Status.CREATED, ImportRowResult.Status.FAILED,
+                ImportRowResult.Status.CREATED), statuses(report));
+        assertTrue(countryService.getCountryByName("Beforeland").isPresent());
+        assertTrue(countryService.getCountryByName("Overlongia").isEmpty());
+        assertTrue(countryService.getCountryByName("Afterland").isPresent());
+    }
+
+    private static List<ImportRowResult.Status> statuses(BulkImportReport report) {
+        return report.getResults().stream().map(ImportRowResult::status).toList();
+    }
+}
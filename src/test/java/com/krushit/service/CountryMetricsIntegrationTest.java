@@ -0,0 +1,47 @@
+package com.krushit.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.observations.annotations.enabled=true",
+        "management.metrics.distribution.percentiles.http.server.requests=0.99"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class CountryMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CountryService countryService;
+
+    @Test
+    void serviceRepositoryCacheAndEndpointMetricsAreScraped() throws Exception {
+        // A name no other test looks up, so the lookup misses the cache and reaches the repository
+        assertTrue(countryService.getCountryByName("Metricsland").isEmpty());
+        countryService.getCountryById(countryService.getCountryByName("Japan").orElseThrow().getId());
+        mockMvc.perform(get("/api/countries/statistics")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("globalvault_country_service_seconds_count{class=\"com.krushit.service.CountryService\",exception=\"none\",method=\"getCountryByName\"}"), scrape);
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count{exception=\"None\",method=\"findByName\",repository=\"CountryRepository\",state=\"SUCCESS\"}"), scrape);
+        assertTrue(scrape.contains("cache_gets_total{cache=\"countries.byId\""), scrape);
+        assertTrue(scrape.contains("hikaricp_connections_active"), scrape);
+        assertTrue(scrape.contains("globalvault_notifications_pending"), scrape);
+        assertTrue(scrape.contains("status=\"200\",uri=\"/api/countries/statistics\",quantile=\"0.99\"}"), scrape);
+    }
+}
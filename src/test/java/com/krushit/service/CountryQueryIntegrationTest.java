@@ -0,0 +1,74 @@
+package com.krushit.service;
+
+import com.krushit.dto.CountryField;
+import com.krushit.dto.CountryQuery;
+import com.krushit.entity.Country;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CountryQueryIntegrationTest {
+
+    private static final String CONTINENT = "Query Region";
+
+    @Autowired
+    private CountryService countryService;
+
+    @Test
+    void combinesFiltersSortingAndPaging() {
+        countryService.saveCountry(new Country("Qa Small", CONTINENT, 1_000L, null, 10.0, "QQD", "Qish"));
+        Country middle = countryService.saveCountry(new Country("Qb Middle", CONTINENT, 50_000L, null, 20.0, "QQD", "Qish"));
+        Country large = countryService.saveCountry(new Country("Qc Large", CONTINENT, 90_000L, null, 30.0, "QQD", "Qish"));
+        countryService.saveCountry(new Country("Qd Other Currency", CONTINENT, 70_000L, null, 40.0, "QQX", "Qish"));
+
+        CountryQuery query = new CountryQuery(null, CONTINENT, "QQD", "Qish", 10_000L, null, null, 35.0);
+        Page<Country> first = countryService.queryCountries(query, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "population")));
+
+        assertEquals(2, first.getTotalElements());
+        assertEquals(List.of(large.getId()), ids(first.getContent()));
+        Page<Country> second = countryService.queryCountries(query, first.nextPageable());
+        assertEquals(List.of(middle.getId()), ids(second.getContent()));
+    }
+
+    @Test
+    void matchesNamePrefixWithLikeWildcardsTakenLiterally() {
+        Country percent = countryService.saveCountry(new Country("Pct% Land", CONTINENT));
+        countryService.saveCountry(new Country("PctX Land", CONTINENT));
+
+        CountryQuery query = new CountryQuery("Pct%", null, null, null, null, null, null, null);
+
+        assertEquals(List.of(percent.getId()), ids(countryService.queryCountries(query, PageRequest.of(0, 10)).getContent()));
+    }
+
+    @Test
+    void selectsOnlyTheRequestedColumns() {
+        Country saved = countryService.saveCountry(new Country("Columnia", CONTINENT, 42L, "Colcap", 1.5, "CLC", "Colish"));
+
+        CountryQuery query = new CountryQuery("Columnia", null, null, null, null, null, null, null);
+        Page<Object[]> page = countryService.queryCountryColumns(query, CountryField.parse("population,id"), PageRequest.of(0, 10));
+
+        assertEquals(1, page.getTotalElements());
+        assertArrayEquals(new Object[] {42L, saved.getId()}, page.getContent().get(0));
+        assertThrows(IllegalArgumentException.class, () -> CountryField.parse("id,secret"));
+    }
+
+    @Test
+    void rejectsUnknownSortPropertiesAndInvertedRanges() {
+        assertThrows(IllegalArgumentException.class, () -> countryService.queryCountries(
+                CountryQuery.unfiltered(), PageRequest.of(0, 10, Sort.by("secret"))));
+        assertThrows(IllegalArgumentException.class, () -> countryService.queryCountries(
+                new CountryQuery(null, null, null, null, 10L, 5L, null, null), PageRequest.of(0, 10)));
+    }
+
+    private static List<Long> ids(List<Country> countries) {
+        return countries.stream().map(Country::getId).toList();
+    }
+}
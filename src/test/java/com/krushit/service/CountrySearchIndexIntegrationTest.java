@@ -0,0 +1,75 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CountrySearchIndexIntegrationTest {
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Test
+    void matchesIgnoringCaseAndAccents() {
+        Country saved = countryService.saveCountry(new Country("Ésquelia", "Zeta Region"));
+
+        assertEquals(List.of(saved.getId()), ids(countryService.searchCountriesByName("esqu")));
+        assertEquals(List.of(saved.getId()), ids(countryService.searchCountriesByName("ÉSQUELIA")));
+        assertEquals(List.of(saved.getId()), ids(countryService.searchCountriesByContinent("zeta reg")));
+        assertTrue(countryService.searchCountriesByName("esqx").isEmpty());
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordThenInfix() {
+        Country infix = countryService.saveCountry(new Country("Havorlan", "Rank Region"));
+        Country word = countryService.saveCountry(new Country("North Orlan", "Rank Region"));
+        Country prefix = countryService.saveCountry(new Country("Orlandia", "Rank Region"));
+        Country exact = countryService.saveCountry(new Country("Orlan", "Rank Region"));
+
+        List<Long> ranked = ids(countryService.suggestCountries("orlan", "Rank Region", null));
+
+        assertEquals(List.of(exact.getId(), prefix.getId(), word.getId(), infix.getId()), ranked);
+        assertEquals(List.of(exact.getId(), prefix.getId()), ids(countryService.suggestCountries("orlan", null, 2)));
+    }
+
+    @Test
+    void singleCharactersMatchAnywhereExceptInSuggestions() {
+        Country inner = countryService.saveCountry(new Country("Bexholm", "Single Region"));
+
+        assertEquals(Set.copyOf(ids(countryRepository.findByNameContainingIgnoreCase("x"))),
+                Set.copyOf(ids(countryService.searchCountriesByName("x"))));
+        assertTrue(ids(countryService.searchCountriesByName("x")).contains(inner.getId()));
+        assertTrue(ids(countryService.searchCountriesByContinent("g")).contains(inner.getId()));
+        assertTrue(countryService.suggestCountries("x", "Single Region", null).isEmpty());
+        assertEquals(List.of(inner.getId()), ids(countryService.suggestCountries("b", "Single Region", null)));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        Country saved = countryService.saveCountry(new Country("Quillmark", "Index Region"));
+        Country renamed = new Country("Brimholt", "Index Region");
+        countryService.updateCountry(saved.getId(), renamed);
+
+        assertTrue(countryService.searchCountriesByName("quillm").isEmpty());
+        assertEquals(List.of(saved.getId()), ids(countryService.searchCountriesByName("brimh")));
+
+        countryService.deleteCountry(saved.getId());
+
+        assertTrue(countryService.searchCountriesByName("brimh").isEmpty());
+    }
+
+    private static List<Long> ids(List<Country> countries) {
+        return countries.stream().map(Country::getId).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.krushit.service;
+
+import com.krushit.dto.CatalogStatistics;
+import com.krushit.dto.ContinentStatistics;
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CountryStatisticsIntegrationTest {
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryStatisticsService statisticsService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Test
+    void localChangesKeepTheSnapshotEqualToAFreshGroupBy() {
+        statisticsService.rebuild();
+
+        Country created = countryService.saveCountry(new Country("Deltaland", "Delta Region", 1000L, "Delta City", 250.5, null, null));
+        assertMatchesGroupBy();
+        assertEquals(1, statisticsService.getStatistics().getByContinent().get("Delta Region").countries());
+
+        Country moved = new Country(created);
+        moved.setContinent("Other Delta Region");
+        moved.setPopulation(2000L);
+        moved.setArea(null);
+        countryService.updateCountry(created.getId(), moved);
+        assertMatchesGroupBy();
+        assertFalse(statisticsService.getStatistics().getContinents().contains("Delta Region"));
+
+        countryService.deleteCountry(created.getId());
+        assertMatchesGroupBy();
+        assertFalse(statisticsService.getStatistics().getContinents().contains("Other Delta Region"));
+    }
+
+    // Areas are summed in a different order than the database sums them, so they are compared with a tolerance
+    private void assertMatchesGroupBy() {
+        CatalogStatistics expected = CatalogStatistics.of(countryRepository.aggregateByContinent());
+        CatalogStatistics actual = statisticsService.getStatistics();
+        assertEquals(expected.getContinents(), actual.getContinents());
+        for (String continent : expected.getContinents()) {
+            assertSameTotals(expected.getByContinent().get(continent), actual.getByContinent().get(continent));
+        }
+        assertSameTotals(expected.getTotal(), actual.getTotal());
+    }
+
+    private static void assertSameTotals(ContinentStatistics expected, ContinentStatistics actual) {
+        assertEquals(expected.countries(), actual.countries(), expected.continent());
+        assertEquals(expected.populatedCountries(), actual.populatedCountries(), expected.continent());
+        assertEquals(expected.totalPopulation(), actual.totalPopulation(), expected.continent());
+        assertEquals(expected.measuredCountries(), actual.measuredCountries(), expected.continent());
+        assertEquals(expected.totalArea(), actual.totalArea(), 1e-6, expected.continent());
+    }
+}
@@ -0,0 +1,46 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CountryVersioningIntegrationTest {
+
+    @Autowired
+    private CountryService countryService;
+
+    @Test
+    void updatesBumpTheRowVersionAndHonorExpectedRevisions() {
+        Country saved = countryService.saveCountry(new Country("Versionia", "Version Region"));
+        assertEquals(0, saved.getVersion());
+        assertNotNull(saved.getLastModified());
+
+        Country updated = countryService.updateCountry(saved.getId(), new Country("Versionia", "Other Region"), List.of(saved.revision()));
+        assertEquals(1, updated.getVersion());
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                countryService.updateCountry(saved.getId(), new Country("Versionia", "Stale Region"), List.of(saved.revision())));
+        assertEquals("Other Region", countryService.getCountryById(saved.getId()).orElseThrow().getContinent());
+    }
+
+    @Test
+    void catalogVersionChangesWithEveryCommittedWrite() {
+        CatalogVersion.Stamp before = countryService.getCatalogVersion();
+
+        Country saved = countryService.saveCountry(new Country("Catalogia", "Version Region"));
+        CatalogVersion.Stamp afterCreate = countryService.getCatalogVersion();
+        countryService.deleteCountry(saved.getId());
+        CatalogVersion.Stamp afterDelete = countryService.getCatalogVersion();
+
+        assertNotEquals(before.tag(), afterCreate.tag());
+        assertNotEquals(afterCreate.tag(), afterDelete.tag());
+        assertFalse(afterDelete.lastModified().isBefore(before.lastModified()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import com.krushit.repository.CountryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CountryWritePathIntegrationTest {
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentDuplicateCreatesLeaveOneRow() throws Exception {
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        countryService.saveCountry(new Country("Duplicatia", "Write Region"));
+                        return true;
+                    } catch (DataIntegrityViolationException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                created += result.get() ? 1 : 0;
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(countryService.existsByName("Duplicatia"));
+        assertFalse(countryService.existsByName("Duplicatia Minor"));
+    }
+
+    @Test
+    void renamingOntoATakenNameIsRejected() {
+        countryService.saveCountry(new Country("Takenland", "Write Region"));
+        Country saved = countryService.saveCountry(new Country("Freeland", "Write Region"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> countryService.updateCountry(saved.getId(), new Country("Takenland", "Write Region")));
+        assertEquals("Freeland", countryRepository.findById(saved.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void staleCachedRowsFallBackToTheDatabase() {
+        Country saved = countryService.saveCountry(new Country("Stalia", "Write Region", 100L, null, null, null, null));
+        assertEquals(0, countryService.getCountryById(saved.getId()).orElseThrow().getVersion());
+        // Changed behind the cache's back, as another instance would before its invalidation arrives
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> countryRepository.updateIfVersion(
+                saved.getId(), 0, new Country("Stalia", "Write Region", 200L, null, null, null, null), Instant.now()));
+
+        Country updated = countryService.updateCountry(saved.getId(), new Country("Stalia Nova", "Write Region", 300L, null, null, null, null));
+
+        assertEquals(2, updated.getVersion());
+        Country stored = countryService.getCountryById(saved.getId()).orElseThrow();
+        assertEquals("Stalia Nova", stored.getName());
+        assertEquals(300L, stored.getPopulation());
+        assertEquals(2, stored.getVersion());
+        assertEquals(updated.getLastModified(), stored.getLastModified());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> countryRepository.updateIfVersion(
+                saved.getId(), 2, new Country("Stalia Nova", "Write Region"), Instant.now()));
+
+        assertTrue(countryService.deleteCountry(saved.getId()));
+        assertFalse(countryRepository.existsById(saved.getId()));
+        assertFalse(countryService.deleteCountry(saved.getId()));
+    }
+
+    @Test
+    void mixedCaseLookupsAreEvictedByTheWrite() {
+        Country japan = countryService.getCountryByName("Japan").orElseThrow();
+        assertEquals(japan.getPopulation(), countryService.getCountryByName("japan").orElseThrow().getPopulation());
+
+        Country details = new Country(japan);
+        details.setPopulation(japan.getPopulation() + 1);
+        countryService.updateCountry(japan.getId(), details);
+
+        assertEquals(japan.getPopulation() + 1, countryService.getCountryByName("japan").orElseThrow().getPopulation());
+        assertEquals(japan.getPopulation() + 1, countryService.getCountryByName("JAPAN").orElseThrow().getPopulation());
+        assertTrue(countryService.getCountriesByContinent("asia").stream()
+                .anyMatch(country -> country.getPopulation() == japan.getPopulation() + 1));
+    }
+
+    @Test
+    void aCachedMissIsEvictedByCreatingTheNameInAnotherCase() {
+        assertTrue(countryService.getCountryByName("newland").isEmpty());
+        assertTrue(countryService.getCountriesByContinent("new region").isEmpty());
+
+        Country created = countryService.saveCountry(new Country("NewLand", "New Region"));
+
+        assertEquals(created.getId(), countryService.getCountryByName("newland").orElseThrow().getId());
+        assertEquals(1, countryService.getCountriesByContinent("new region").size());
+        assertTrue(countryService.deleteCountry(created.getId()));
+        assertTrue(countryService.getCountryByName("NEWLAND").isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvCountryRowReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasEscapedQuotesAndNewlines() throws IOException {
+        List<CountryRowReader.Row> rows = read("name,continent,capital,language\n"
+                + "\"Bosnia, Herzegovina\",Europe,\"The \"\"Old\"\" Town\",\"Bosnian\nCroatian\"\n");
+
+        assertEquals(1, rows.size());
+        Country country = rows.get(0).country();
+        assertEquals("Bosnia, Herzegovina", country.getName());
+        assertEquals("The \"Old\" Town", country.getCapital());
+        assertEquals("Bosnian\nCroatian", country.getLanguage());
+    }
+
+    @Test
+    void crlfLineEndingsAndALeadingBomAreAccepted() throws IOException {
+        List<CountryRowReader.Row> rows = read("\uFEFFname,continent,population\r\nFrance,Europe,68000000\r\nJapan,Asia,125000000\r\n");
+
+        assertEquals(2, rows.size());
+        assertEquals("France", rows.get(0).country().getName());
+        assertEquals(68_000_000L, rows.get(0).country().getPopulation());
+        assertEquals("Asia", rows.get(1).country().getContinent());
+        assertEquals(125_000_000L, rows.get(1).country().getPopulation());
+    }
+
+    @Test
+    void columnsMayComeInAnyOrderAndUnknownOrMissingOnesAreIgnored() throws IOException {
+        List<CountryRowReader.Row> rows = read("Continent,flag,Name,area\nEurope,blue,Iceland,103000.5,extra\nAsia\n");
+
+        assertEquals(2, rows.size());
+        Country iceland = rows.get(0).country();
+        assertEquals("Iceland", iceland.getName());
+        assertEquals("Europe", iceland.getContinent());
+        assertEquals(103000.5, iceland.getArea());
+        // A short record leaves the missing fields empty; validation rejects it later
+        Country shortRecord = rows.get(1).country();
+        assertEquals("Asia", shortRecord.getContinent());
+        assertNull(shortRecord.getName());
+        assertNull(shortRecord.getArea());
+    }
+
+    @Test
+    void aBadNumberOnlyFailsItsRow() throws IOException {
+        List<CountryRowReader.Row> rows = read("name,continent,population\nFrance,Europe,many\n\nJapan,Asia,1\n");
+
+        assertEquals(2, rows.size());
+        assertNull(rows.get(0).country());
+        assertTrue(rows.get(0).error().startsWith("Invalid number"));
+        assertEquals("Japan", rows.get(1).country().getName());
+    }
+
+    @Test
+    void anOverlongRecordIsReportedAndSkipped() throws IOException {
+        List<CountryRowReader.Row> rows = read("name,continent\n" + "x".repeat(100) + ",Europe\nJapan,Asia\n", 50);
+
+        assertEquals(2, rows.size());
+        assertEquals("Record exceeds 50 characters", rows.get(0).error());
+        assertEquals("Japan", rows.get(1).country().getName());
+    }
+
+    @Test
+    void theHeaderMustNameTheRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> read(""));
+        assertThrows(IllegalArgumentException.class, () -> read("name,capital\nFrance,Paris\n"));
+    }
+
+    private static List<CountryRowReader.Row> read(String csv) throws IOException {
+        return read(csv, 1000);
+    }
+
+    private static List<CountryRowReader.Row> read(String csv, int maxRecordLength) throws IOException {
+        List<CountryRowReader.Row> rows = new ArrayList<>();
+        try (CountryRowReader reader = new CsvCountryRowReader(new StringReader(csv), maxRecordLength)) {
+            CountryRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,87 @@
+package com.krushit.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.krushit.entity.Country;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonCountryRowReaderTest {
+
+    @Test
+    void eachLineIsOneCountry() throws IOException {
+        List<CountryRowReader.Row> rows = read("{\"name\":\"Bosnia, Herzegovina\",\"continent\":\"Europe\",\"capital\":\"The \\\"Old\\\" Town\"}\n"
+                + "{\"name\":\"Japan\",\"continent\":\"Asia\",\"language\":\"Japanese\\nAinu\",\"population\":125000000}\n");
+
+        assertEquals(2, rows.size());
+        assertEquals("Bosnia, Herzegovina", rows.get(0).country().getName());
+        assertEquals("The \"Old\" Town", rows.get(0).country().getCapital());
+        assertEquals("Japanese\nAinu", rows.get(1).country().getLanguage());
+        assertEquals(125_000_000L, rows.get(1).country().getPopulation());
+    }
+
+    @Test
+    void crlfLineEndingsBlankLinesAndALeadingBomAreAccepted() throws IOException {
+        List<CountryRowReader.Row> rows = read("\uFEFF{\"name\":\"France\",\"continent\":\"Europe\"}\r\n\r\n{\"name\":\"Japan\",\"continent\":\"Asia\"}");
+
+        assertEquals(2, rows.size());
+        assertEquals("France", rows.get(0).country().getName());
+        assertEquals("Japan", rows.get(1).country().getName());
+    }
+
+    @Test
+    void missingAndUnknownPropertiesAreNotErrors() throws IOException {
+        List<CountryRowReader.Row> rows = read("{\"name\":\"Iceland\",\"flag\":\"blue\"}\n");
+
+        assertEquals(1, rows.size());
+        assertEquals("Iceland", rows.get(0).country().getName());
+        assertNull(rows.get(0).country().getContinent());
+    }
+
+    @Test
+    void malformedLinesAndBadNumbersOnlyFailTheirRow() throws IOException {
+        List<CountryRowReader.Row> rows = read("{\"name\":\"France\",\n"
+                + "{\"name\":\"Japan\",\"continent\":\"Asia\",\"population\":\"many\"}\n"
+                + "{\"name\":\"Chile\",\"continent\":\"South America\"}\n");
+
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).error().startsWith("Malformed JSON"));
+        assertTrue(rows.get(1).error().startsWith("Malformed JSON"));
+        assertEquals("Chile", rows.get(2).country().getName());
+    }
+
+    @Test
+    void anOverlongLineIsReportedAndSkipped() throws IOException {
+        List<CountryRowReader.Row> rows = read("{\"name\":\"" + "x".repeat(100) + "\"}\n{\"name\":\"Japan\",\"continent\":\"Asia\"}\n", 50);
+
+        assertEquals(2, rows.size());
+        assertEquals("Line exceeds 50 characters", rows.get(0).error());
+        assertEquals("Japan", rows.get(1).country().getName());
+    }
+
+    private static List<CountryRowReader.Row> read(String ndjson) throws IOException {
+        return read(ndjson, 1000);
+    }
+
+    private static List<CountryRowReader.Row> read(String ndjson, int maxLineLength) throws IOException {
+        List<CountryRowReader.Row> rows = new ArrayList<>();
+        // Configured like Spring Boot's ObjectMapper, which the import endpoint binds with
+        JsonMapper mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        try (CountryRowReader reader = new NdjsonCountryRowReader(new StringReader(ndjson), mapper.readerFor(Country.class), maxLineLength)) {
+            CountryRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,102 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import com.krushit.entity.NotificationOutbox;
+import com.krushit.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, and the schedule is left to the test: two threads draining the outbox stand in for two instances
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox_lease_db;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "globalvault.notifications.poll-interval=1h",
+        "globalvault.notifications.publish-timeout=200ms"
+})
+class NotificationLeaseIntegrationTest {
+
+    private static final int EVENTS = 8;
+
+    @TestConfiguration
+    static class SlowPublisherConfiguration {
+
+        @Bean
+        @Primary
+        SlowNotificationPublisher slowNotificationPublisher() {
+            return new SlowNotificationPublisher();
+        }
+    }
+
+    // Blocks on every call like the synchronous Lambda client; a whole batch takes twice the 600 ms lease
+    static class SlowNotificationPublisher implements NotificationPublisher {
+
+        final List<Long> delivered = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(NotificationEvent event) throws InterruptedException {
+            Thread.sleep(150);
+            delivered.add(event.id());
+        }
+    }
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private SlowNotificationPublisher publisher;
+
+    @Test
+    void aBatchSlowerThanItsLeaseIsNotDeliveredTwice() throws Exception {
+        for (int i = 0; i < EVENTS; i++) {
+            countryService.saveCountry(new Country("Lease Land " + i, "Lease Region"));
+        }
+
+        ExecutorService instances = Executors.newFixedThreadPool(2);
+        try {
+            long deadline = System.currentTimeMillis() + 10_000;
+            List<Future<?>> drains = List.of(instances.submit(() -> drain(deadline)), instances.submit(() -> drain(deadline)));
+            for (Future<?> drain : drains) {
+                drain.get();
+            }
+        } finally {
+            instances.shutdownNow();
+        }
+
+        assertEquals(EVENTS, dispatched().size());
+        assertEquals(EVENTS, publisher.delivered.size());
+        assertEquals(EVENTS, publisher.delivered.stream().distinct().count());
+        // Events handed back untried do not use up an attempt
+        assertTrue(dispatched().stream().allMatch(entry -> entry.getAttempts() == 1));
+    }
+
+    private Void drain(long deadline) throws InterruptedException {
+        while (dispatched().size() < EVENTS && System.currentTimeMillis() < deadline) {
+            dispatcher.dispatchPending();
+            Thread.sleep(20);
+        }
+        return null;
+    }
+
+    private List<NotificationOutbox> dispatched() {
+        return outboxRepository.findAll().stream()
+                .filter(entry -> entry.getStatus() == NotificationOutbox.Status.DISPATCHED)
+                .toList();
+    }
+}
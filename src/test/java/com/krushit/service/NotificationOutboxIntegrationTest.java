@@ -0,0 +1,137 @@
+package com.krushit.service;
+
+import com.krushit.entity.Country;
+import com.krushit.entity.NotificationOutbox;
+import com.krushit.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database: dispatchers of other cached test contexts would otherwise claim these events
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox_db;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "globalvault.notifications.poll-interval=50ms",
+        "globalvault.notifications.initial-backoff=10ms",
+        "globalvault.notifications.max-attempts=3"
+})
+class NotificationOutboxIntegrationTest {
+
+    @TestConfiguration
+    static class FakePublisherConfiguration {
+
+        @Bean
+        @Primary
+        RecordingNotificationPublisher recordingNotificationPublisher() {
+            return new RecordingNotificationPublisher();
+        }
+    }
+
+    // In-process stand-in for Lambda that can be told to fail a number of times
+    static class RecordingNotificationPublisher implements NotificationPublisher {
+
+        final List<NotificationEvent> delivered = new CopyOnWriteArrayList<>();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        final AtomicBoolean calledInTransaction = new AtomicBoolean();
+
+        @Override
+        public void publish(NotificationEvent event) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                calledInTransaction.set(true);
+            }
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                throw new IllegalStateException("target unavailable");
+            }
+            delivered.add(event);
+        }
+    }
+
+    @Autowired
+    private CountryService countryService;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private RecordingNotificationPublisher publisher;
+
+    @BeforeEach
+    void reset() {
+        publisher.delivered.clear();
+        publisher.failuresLeft.set(0);
+    }
+
+    @Test
+    void createAndDeleteAreDeliveredInTheBackground() throws InterruptedException {
+        Country saved = countryService.saveCountry(new Country("Outbox Land", "Europe"));
+        countryService.deleteCountry(saved.getId());
+
+        awaitDelivered(2);
+        assertEquals("Country Added", publisher.delivered.get(0).action());
+        assertEquals("Outbox Land", publisher.delivered.get(0).details());
+        assertEquals("Country Deleted", publisher.delivered.get(1).action());
+        assertEquals("ID=" + saved.getId(), publisher.delivered.get(1).details());
+        // The claim's row locks and connection are not held while the target is called
+        assertFalse(publisher.calledInTransaction.get());
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedWithBackoff() throws InterruptedException {
+        publisher.failuresLeft.set(1);
+
+        countryService.saveCountry(new Country("Retry Land", "Europe"));
+
+        awaitDelivered(1);
+        // The publisher sees the event before the dispatcher records the outcome
+        NotificationOutbox entry = awaitEntry("Retry Land", NotificationOutbox.Status.DISPATCHED);
+        assertEquals(2, entry.getAttempts());
+    }
+
+    @Test
+    void rolledBackWritesLeaveNothingToDeliver() throws InterruptedException {
+        long before = outboxRepository.count();
+
+        assertThrows(RuntimeException.class, () -> countryService.saveCountry(new Country("Japan", "Asia")));
+
+        Thread.sleep(200);
+        assertEquals(before, outboxRepository.count());
+        assertTrue(publisher.delivered.isEmpty());
+    }
+
+    private NotificationOutbox awaitEntry(String details, NotificationOutbox.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            NotificationOutbox entry = outboxRepository.findAll().stream()
+                    .filter(outbox -> details.equals(outbox.getDetails()))
+                    .findFirst().orElseThrow();
+            if (entry.getStatus() == status) {
+                return entry;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Expected " + details + " to be " + status + " but it is " + entry.getStatus());
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private void awaitDelivered(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (publisher.delivered.size() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Expected " + count + " deliveries but got " + publisher.delivered.size());
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.krushit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    @Test
+    void concurrentIdenticalReadsShareOneQuery() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("byName", "Japan", () -> {
+            queries.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "Japan";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("byName", "Japan", () -> {
+                queries.incrementAndGet();
+                return "another query";
+            })));
+        }
+        // A different key runs on its own
+        assertEquals("Peru", singleFlight.execute("byName", "Peru", () -> "Peru"));
+        awaitFollowers(5);
+        release.countDown();
+
+        assertEquals("Japan", leader.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<String> follower : followers) {
+            assertEquals("Japan", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get());
+        assertEquals(2.0, meterRegistry.get("globalvault.singleflight.calls").tag("role", "leader").counter().count());
+
+        // Nothing is kept once the query has returned
+        assertEquals("fresh", singleFlight.execute("byName", "Japan", () -> "fresh"));
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("statistics", 1L, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> {
+            try {
+                return singleFlight.execute("statistics", 1L, () -> "not run");
+            } catch (IllegalStateException e) {
+                return e.getMessage();
+            }
+        });
+        awaitFollowers(1);
+        release.countDown();
+
+        assertEquals("database down", follower.get(5, TimeUnit.SECONDS));
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitFollowers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("globalvault.singleflight.calls").tag("role", "follower").counter() == null
+                || meterRegistry.get("globalvault.singleflight.calls").tag("role", "follower").counter().count() < count) {
+            assertTrue(System.nanoTime() < deadline, "Followers did not join the flight");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}